@@ -0,0 +1,124 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.benchmark;
+
+import org.eclipse.tractusx.selfdescriptionfactory.config.SecurityRoles;
+import org.eclipse.tractusx.selfdescriptionfactory.service.AuthChecker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Authorizes a call with {@link AuthChecker} and with the former path through a method security proxy
+ * evaluating {@code @PreAuthorize("hasAuthority(@securityRoles.createRole)")}. The user has a few
+ * Keycloak default roles next to the required one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private static final String CREATE_ROLE = "add_self_descriptions";
+
+    private AnnotationConfigApplicationContext context;
+    private Function<String, String> authChecker;
+    private Function<String, String> preAuthorize;
+
+    @Setup
+    public void setUp() {
+        var securityRoles = new SecurityRoles();
+        securityRoles.setCreateRole(CREATE_ROLE);
+        var checker = new AuthChecker(securityRoles);
+        checker.afterPropertiesSet();
+        authChecker = checker.getAuthorizedFn(Function.identity());
+        context = new AnnotationConfigApplicationContext(MethodSecurityConfig.class);
+        preAuthorize = context.getBean(PreAuthorizeChecker.class).getAuthorizedFn(Function.identity());
+        // Thread scoped state, so the context is set on the thread running the benchmark
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated("user", null,
+                AuthorityUtils.createAuthorityList("offline_access", "uma_authorization", "default-roles-catena-x", CREATE_ROLE)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public String authChecker() {
+        return authChecker.apply("externalId");
+    }
+
+    @Benchmark
+    public String preAuthorize() {
+        return preAuthorize.apply("externalId");
+    }
+
+    @Configuration
+    @EnableMethodSecurity
+    public static class MethodSecurityConfig {
+        @Bean
+        public SecurityRoles securityRoles() {
+            var securityRoles = new SecurityRoles();
+            securityRoles.setCreateRole(CREATE_ROLE);
+            return securityRoles;
+        }
+
+        @Bean
+        public PreAuthorizeChecker preAuthorizeChecker(ObjectFactory<PreAuthorizeChecker> factory) {
+            return new PreAuthorizeChecker(factory);
+        }
+    }
+
+    /**
+     * The former implementation of {@link AuthChecker}.
+     */
+    public static class PreAuthorizeChecker {
+
+        private final ObjectFactory<PreAuthorizeChecker> factory;
+
+        public PreAuthorizeChecker(ObjectFactory<PreAuthorizeChecker> factory) {
+            this.factory = factory;
+        }
+
+        public <T, R> Function<T, R> getAuthorizedFn(Function<T, R> function) {
+            return t -> factory.getObject().checkAuthorized(t, function);
+        }
+
+        @PreAuthorize("hasAuthority(@securityRoles.createRole)")
+        public <T, R> R checkAuthorized(T t, Function<T, R> function) {
+            return function.apply(t);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.benchmark;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.config.CustodianWalletProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TermsAndConditionsProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.RegistrationNumberSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.DocumentFetcher;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.TermsAndConditionsHelper;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianClient;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Requests and local stand-ins for the Custodian Wallet and the Terms and Conditions
+ * download, so the benchmarks measure the conversion only and never leave the JVM.
+ */
+final class BenchmarkFixtures {
+    static final String BPN = "BPNL000000000000";
+    static final String HOLDER = "BPNL000000000001";
+    static final String ISSUER = "CAXSDUMMYCATENAZZ";
+    static final String TERMS_AND_CONDITIONS = "https://example.com/terms/1.pdf, https://example.com/terms/2.pdf";
+
+    private BenchmarkFixtures() {
+    }
+
+    static LegalParticipantSchema legalParticipant() {
+        var registrationNumbers = new LinkedHashSet<RegistrationNumberSchema>();
+        registrationNumbers.add(new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.TAXID).value("o12345678"));
+        registrationNumbers.add(new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.VATID).value("DE123456789"));
+        return new LegalParticipantSchema()
+                .type("LegalParticipant")
+                .externalId("ID01234-123-4321")
+                .holder(HOLDER)
+                .issuer(ISSUER)
+                .bpn(BPN)
+                .registrationNumber(registrationNumbers)
+                .headquarterAddressCountry("DE-BE")
+                .legalAddressCountry("DE-BE");
+    }
+
+    static ServiceOfferingSchema serviceOffering() {
+        return new ServiceOfferingSchema()
+                .type("ServiceOffering")
+                .externalId("ID01234-123-4322")
+                .holder(HOLDER)
+                .issuer(ISSUER)
+                .providedBy(URI.create("https://participant.example.com"))
+                .aggregationOf("https://example.com/aggregate/1, https://example.com/aggregate/2")
+                .termsAndConditions(TERMS_AND_CONDITIONS)
+                .policies("policy-1, policy-2");
+    }
+
+    static CustodianWallet custodianWallet() {
+        var wallet = new CustodianWallet(new CustodianClient() {
+            @Override
+            public Map<String, Object> getWalletData(String walletId) {
+                return Map.of("did", "did:sov:" + walletId, "name", "Legal name of " + walletId);
+            }
+
+            @Override
+            public VerifiableCredential getSignedVC(VerifiableCredential objToSign) {
+                return objToSign;
+            }
+        }, new CustodianWalletProperties(), new SimpleMeterRegistry(), pipelineMetrics());
+        wallet.afterPropertiesSet();
+        return wallet;
+    }
+
+    static TermsAndConditionsHelper termsAndConditionsHelper() {
+        var properties = new TermsAndConditionsProperties();
+        var meterRegistry = new SimpleMeterRegistry();
+        return new TermsAndConditionsHelper(new DocumentFetcher(properties, meterRegistry), properties, meterRegistry, pipelineMetrics()) {
+            @Override
+            public CompletableFuture<String> getHashAsync(String urlStr) {
+                return CompletableFuture.completedFuture("3b1c4a5d0b8f6e1a2c3d4e5f60718293a4b5c6d7e8f90112233445566778899a");
+            }
+        };
+    }
+
+    static PipelineMetrics pipelineMetrics() {
+        var pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry(), new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+        return pipelineMetrics;
+    }
+}
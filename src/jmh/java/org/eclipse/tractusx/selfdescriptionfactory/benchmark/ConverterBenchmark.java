@@ -0,0 +1,94 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.benchmark;
+
+import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a LegalParticipant and a ServiceOffering request with the converters of each
+ * context profile. Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final String SCHEMA_2210_URL = "https://github.com/eclipse-tractusx/sd-factory/blob/main/src/main/resources/verifiablecredentials/sd-document-v2210.jsonld";
+
+    @Param({"catena-x-ctx", "gaia-x-ctx", "fc-ctx"})
+    private String profile;
+
+    private Converter<LegalParticipantSchema, SDFactory.SelfDescription> legalParticipantConverter;
+    private Converter<ServiceOfferingSchema, SDFactory.SelfDescription> serviceOfferingConverter;
+    private LegalParticipantSchema legalParticipant;
+    private ServiceOfferingSchema serviceOffering;
+
+    @Setup
+    public void setUp() throws Exception {
+        var custodianWallet = BenchmarkFixtures.custodianWallet();
+        var termsAndConditionsHelper = BenchmarkFixtures.termsAndConditionsHelper();
+        switch (profile) {
+            case "catena-x-ctx" -> {
+                legalParticipantConverter = withContext(new org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3.LegalParticipantSDConverter(), SCHEMA_2210_URL);
+                serviceOfferingConverter = withContext(new org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3.ServiceOfferingSDConverter(termsAndConditionsHelper), SCHEMA_2210_URL);
+            }
+            case "gaia-x-ctx" -> {
+                legalParticipantConverter = withContext(new org.eclipse.tractusx.selfdescriptionfactory.service.converter.gaiax.LegalParticipantSDConverter(custodianWallet), "https://registry.lab.gaia-x.eu/development/api/trusted-schemas-registry/v2/schemas");
+                serviceOfferingConverter = withContext(new org.eclipse.tractusx.selfdescriptionfactory.service.converter.gaiax.ServiceOfferingSDConverter(custodianWallet, termsAndConditionsHelper), "https://gaia-x.gitlab.io/gaia-x-community/gaia-x-self-descriptions/service/ontology.json");
+            }
+            case "fc-ctx" -> {
+                legalParticipantConverter = new org.eclipse.tractusx.selfdescriptionfactory.service.converter.fcformat.LegalParticipantSDConverter(custodianWallet);
+                serviceOfferingConverter = new org.eclipse.tractusx.selfdescriptionfactory.service.converter.fcformat.ServiceOfferingSDConverter(custodianWallet, termsAndConditionsHelper);
+            }
+            default -> throw new IllegalArgumentException("Unknown profile " + profile);
+        }
+        legalParticipant = BenchmarkFixtures.legalParticipant();
+        serviceOffering = BenchmarkFixtures.serviceOffering();
+    }
+
+    @Benchmark
+    public SDFactory.SelfDescription legalParticipant() {
+        return legalParticipantConverter.convert(legalParticipant);
+    }
+
+    @Benchmark
+    public SDFactory.SelfDescription serviceOffering() {
+        return serviceOfferingConverter.convert(serviceOffering);
+    }
+
+    private static <T extends InitializingBean> T withContext(T converter, String contextUri) throws Exception {
+        ReflectionTestUtils.setField(converter, "contextUri", URI.create(contextUri));
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
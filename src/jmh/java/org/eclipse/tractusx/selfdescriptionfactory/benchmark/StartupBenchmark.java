@@ -0,0 +1,153 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.benchmark;
+
+import org.eclipse.tractusx.selfdescriptionfactory.SelfDescriptionFactoryApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Measures the time from launching the packaged application in a new JVM until its context is
+ * refreshed ({@code spring.context.exit=onRefresh}), the way the Docker image starts it: plain JVM,
+ * with Spring AOT and with Spring AOT plus a dynamic CDS archive created by a training run. The
+ * {@code aot} modes need a jar built with the {@code fast-start} profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String AOT_INITIALIZER = SelfDescriptionFactoryApplication.class.getName().replace('.', '/') + "__ApplicationContextInitializer.class";
+
+    @Param({"jit", "aot", "aot-cds"})
+    public String mode;
+
+    private Path workDirectory;
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        workDirectory = Files.createTempDirectory("sd-factory-startup");
+        var classPath = unpack(findApplicationJar(), workDirectory);
+        var options = new ArrayList<String>();
+        if (mode.startsWith("aot")) {
+            options.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.equals("aot-cds")) {
+            var archive = workDirectory.resolve("application.jsa").toString();
+            run(command(classPath, options, "-XX:ArchiveClassesAtExit=" + archive));
+            options.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command = command(classPath, options);
+    }
+
+    @Benchmark
+    public int startup() throws IOException, InterruptedException {
+        return run(command);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDirectory);
+    }
+
+    private List<String> command(String classPath, List<String> options, String... extraOptions) {
+        var result = new ArrayList<String>();
+        result.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        result.addAll(options);
+        result.addAll(List.of(extraOptions));
+        // the JWK set is fetched with the first request only, a placeholder URI is sufficient to start
+        result.addAll(List.of("-Dspring.context.exit=onRefresh", "-Dserver.port=0",
+                "-Dspring.security.oauth2.resourceserver.jwt.jwk-set-uri=https://idp.example.com/certs", "-cp", classPath,
+                SelfDescriptionFactoryApplication.class.getName()));
+        return result;
+    }
+
+    private static int run(List<String> command) throws IOException, InterruptedException {
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        var exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Application exited with " + exitCode + ": " + command);
+        }
+        return exitCode;
+    }
+
+    private static Path findApplicationJar() throws IOException {
+        try (var jars = Files.list(Path.of("target"))) {
+            return jars.filter(path -> path.getFileName().toString().matches("sd-factory-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Application jar not found in target, run the package phase first"));
+        }
+    }
+
+    /**
+     * Lays out the executable jar like the Docker image: the application classes in their own jar
+     * next to the library jars, since CDS archives classes from jar files only.
+     */
+    private String unpack(Path applicationJar, Path target) throws IOException {
+        var lib = Files.createDirectories(target.resolve("lib"));
+        var classesJar = target.resolve("application.jar");
+        var aotProcessed = false;
+        try (var jar = new JarFile(applicationJar.toFile());
+             var classes = new JarOutputStream(Files.newOutputStream(classesJar))) {
+            for (var entry : jar.stream().toList()) {
+                var name = entry.getName();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (name.startsWith("BOOT-INF/lib/")) {
+                    try (var in = jar.getInputStream(entry)) {
+                        Files.copy(in, lib.resolve(name.substring("BOOT-INF/lib/".length())));
+                    }
+                } else if (name.startsWith("BOOT-INF/classes/")) {
+                    var className = name.substring("BOOT-INF/classes/".length());
+                    aotProcessed |= className.equals(AOT_INITIALIZER);
+                    classes.putNextEntry(new ZipEntry(className));
+                    try (var in = jar.getInputStream(entry)) {
+                        in.transferTo(classes);
+                    }
+                    classes.closeEntry();
+                }
+            }
+        }
+        if (mode.startsWith("aot") && !aotProcessed) {
+            throw new IllegalStateException(applicationJar + " is not AOT processed, build it with the fast-start profile");
+        }
+        return classesJar + File.pathSeparator + lib.resolve("*");
+    }
+}
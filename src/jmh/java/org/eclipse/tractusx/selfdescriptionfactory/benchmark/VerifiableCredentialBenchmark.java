@@ -0,0 +1,103 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.benchmark;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import feign.codec.Encoder;
+import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
+import org.eclipse.tractusx.selfdescriptionfactory.config.VerifiableCredentialEncoder;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.fcformat.LegalParticipantSDConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a converted Self-Description into a VerifiableCredential the way {@link SDFactory} does
+ * and serializes it, with the ObjectMapper, with the SpringEncoder and with the streaming encoder of
+ * the Feign clients. The ObjectMapper is configured like the one of the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifiableCredentialBenchmark {
+
+    private static final int DURATION_DAYS = 90;
+
+    private ObjectMapper objectMapper;
+    private Encoder springEncoder;
+    private VerifiableCredentialEncoder encoder;
+    private SDFactory.SelfDescription selfDescription;
+    private VerifiableCredential verifiableCredential;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(MapperFeature.USE_STD_BEAN_NAMING)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        var converters = new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper));
+        springEncoder = new SpringEncoder(() -> converters);
+        encoder = new VerifiableCredentialEncoder(objectMapper, springEncoder);
+        selfDescription = new LegalParticipantSDConverter(BenchmarkFixtures.custodianWallet()).convert(BenchmarkFixtures.legalParticipant());
+        verifiableCredential = SDFactory.buildVerifiableCredential(selfDescription, DURATION_DAYS);
+    }
+
+    @Benchmark
+    public VerifiableCredential build() {
+        return SDFactory.buildVerifiableCredential(selfDescription, DURATION_DAYS);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(verifiableCredential);
+    }
+
+    @Benchmark
+    public byte[] springEncode() {
+        var template = new RequestTemplate();
+        springEncoder.encode(verifiableCredential, VerifiableCredential.class, template);
+        return template.body();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        var template = new RequestTemplate();
+        encoder.encode(verifiableCredential, VerifiableCredential.class, template);
+        return template.body();
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(SDFactory.buildVerifiableCredential(selfDescription, DURATION_DAYS));
+    }
+}
@@ -20,29 +20,48 @@
 
 package org.eclipse.tractusx.selfdescriptionfactory;
 
-import com.danubetech.verifiablecredentials.CredentialSubject;
 import com.danubetech.verifiablecredentials.VerifiableCredential;
+import io.vavr.control.Try;
+import jakarta.validation.Validator;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.tractusx.selfdescriptionfactory.api.vrel3.ApiApiDelegate;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.BatchItemResultSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.SelfDescriptionBatchItemSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.SelfdescriptionPostRequest;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.StageTimingSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.SubmissionStatusSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.service.AuthChecker;
 import org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse.ClearingHouse;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.IdempotencyStore;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionDispatcher;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionTracker;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * A service to create and manipulate of Self-Description document
@@ -51,6 +70,8 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 @Slf4j
 public class SDFactory implements ApiApiDelegate, InitializingBean {
+    private static final String STATUS_PATH = "/api/rel3/selfdescription/status/{externalId}";
+
     @Value("${app.verifiableCredentials.durationDays:90}")
     private int duration;
 
@@ -58,34 +79,197 @@ public class SDFactory implements ApiApiDelegate, InitializingBean {
     private final ClearingHouse clearingHouse;
     private final Environment environment;
     private final AuthChecker authChecker;
+    private final SubmissionProperties submissionProperties;
+    private final SubmissionDispatcher submissionDispatcher;
+    private final Validator validator;
+    private final PipelineMetrics pipelineMetrics;
+    private final IdempotencyStore idempotencyStore;
+    private final SubmissionTracker submissionTracker;
 
     private Function<SelfdescriptionPostRequest, ResponseEntity<Void>> decoratedFunction;
+    private Function<List<SelfDescriptionBatchItemSchema>, ResponseEntity<List<BatchItemResultSchema>>> decoratedBatchFunction;
+    private Function<String, ResponseEntity<SubmissionStatusSchema>> decoratedStatusFunction;
 
     @Override
     public ResponseEntity<Void> selfdescriptionPost(SelfdescriptionPostRequest selfdescriptionPostRequest) {
         return decoratedFunction.apply(selfdescriptionPostRequest);
     }
 
-    private ResponseEntity<Void> doWork(SelfdescriptionPostRequest selfdescriptionPostRequest) {
-        var processed = Objects.requireNonNull(conversionService.convert(selfdescriptionPostRequest, SelfDescription.class), "Converted SD-Document is null. Very strange");
+    @Override
+    public ResponseEntity<List<BatchItemResultSchema>> selfdescriptionBatchPost(List<SelfDescriptionBatchItemSchema> selfDescriptionBatchItemSchema) {
+        return decoratedBatchFunction.apply(selfDescriptionBatchItemSchema);
+    }
+
+    @Override
+    public ResponseEntity<SubmissionStatusSchema> selfdescriptionStatusGet(String externalId) {
+        return decoratedStatusFunction.apply(externalId);
+    }
+
+    private ResponseEntity<Void> accept(SelfdescriptionPostRequest selfdescriptionPostRequest) {
+        var externalId = Utils.getExternalId(selfdescriptionPostRequest);
+        // a repeated submission is answered the same way without being processed again
+        var claim = idempotencyStore.claim(selfdescriptionPostRequest);
+        if (claim.isPresent()) {
+            submissionTracker.queued(externalId);
+            Consumer<Throwable> onFailure = err -> failed(claim.get(), err);
+            // onFailure runs once: for a rejected dispatch here, otherwise where the work fails
+            switch (submissionProperties.getMode()) {
+                case ASYNC -> Try.run(() -> submissionDispatcher.dispatch(externalId, () -> doWork(selfdescriptionPostRequest, onFailure)))
+                        .onFailure(onFailure)
+                        .get();
+                case SYNC -> doWork(selfdescriptionPostRequest, onFailure);
+            }
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path(STATUS_PATH)
+                        .buildAndExpand(externalId)
+                        .toUri())
+                .build();
+    }
+
+    private ResponseEntity<SubmissionStatusSchema> getStatus(String externalId) {
+        return submissionTracker.get(externalId)
+                .map(SDFactory::toSchema)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No submission found for externalId " + externalId));
+    }
+
+    private static SubmissionStatusSchema toSchema(SubmissionTracker.Status status) {
+        return new SubmissionStatusSchema()
+                .externalId(status.externalId())
+                .state(SubmissionStatusSchema.StateEnum.valueOf(status.state().name()))
+                .acceptedAt(status.acceptedAt().toString())
+                .updatedAt(status.updatedAt().toString())
+                .verifiableCredentialId(status.verifiableCredentialId())
+                .message(status.message())
+                .stages(status.stages().entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(stage -> new StageTimingSchema()
+                                .stage(stage.getKey().getTag())
+                                .durationMillis(stage.getValue().duration().toMillis())
+                                .count(stage.getValue().count()))
+                        .toList());
+    }
+
+    private void failed(IdempotencyStore.Submission submission, Throwable err) {
+        idempotencyStore.release(submission);
+        submissionTracker.failed(submission.externalId(), getReason(err));
+    }
+
+    private ResponseEntity<List<BatchItemResultSchema>> acceptBatch(List<SelfDescriptionBatchItemSchema> batch) {
+        if (batch.size() > submissionProperties.getMaxBatchSize()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Batch must not contain more than " + submissionProperties.getMaxBatchSize() + " items"
+            );
+        }
+        // all items are handed over to the worker pool first, so they are converted in parallel
+        var processing = batch.stream().map(this::submitBatchItem).toList();
+        var result = IntStream.range(0, batch.size())
+                .mapToObj(i -> {
+                    var itemResult = new BatchItemResultSchema()
+                            .index(i)
+                            .externalId(Utils.getExternalId(batch.get(i)));
+                    return processing.get(i).handle((ignored, err) -> err == null
+                            ? itemResult.status(BatchItemResultSchema.StatusEnum.ACCEPTED)
+                            : itemResult.status(BatchItemResultSchema.StatusEnum.FAILED).message(getReason(err))
+                    ).join();
+                }).toList();
+        return ResponseEntity.ok(result);
+    }
+
+    private CompletableFuture<Void> submitBatchItem(SelfDescriptionBatchItemSchema item) {
+        var violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return CompletableFuture.failedFuture(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    violations.stream()
+                            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", "))
+            ));
+        }
+        var claim = idempotencyStore.claim(item);
+        if (claim.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        var externalId = Utils.getExternalId(item);
+        submissionTracker.queued(externalId);
+        Consumer<Throwable> onFailure = err -> failed(claim.get(), err);
+        // in async mode an item is done as soon as it is enqueued and a later failure is handled
+        // by the worker, otherwise we wait for it to be sent. Either way a failed future is handled below only
+        var processing = switch (submissionProperties.getMode()) {
+            case ASYNC -> Try.run(() -> submissionDispatcher.dispatch(externalId, () -> doWork(item, onFailure)))
+                    .fold(CompletableFuture::<Void>failedFuture, CompletableFuture::completedFuture);
+            case SYNC -> submissionDispatcher.submit(externalId, () -> doWork(item));
+        };
+        return processing.whenComplete((ignored, err) -> {
+            if (err != null) {
+                onFailure.accept(err);
+            }
+        });
+    }
+
+    private static String getReason(Throwable err) {
+        // a failure of a converter is wrapped by the ConversionService, the reason is the failure itself
+        var cause = err;
+        while ((cause instanceof CompletionException || cause instanceof ConversionFailedException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof ResponseStatusException responseStatusException
+                ? responseStatusException.getReason()
+                : cause.getMessage();
+    }
+
+    private void doWork(Object selfDescriptionRequest, Consumer<Throwable> onFailure) {
+        try {
+            doWork(selfDescriptionRequest);
+        } catch (RuntimeException e) {
+            onFailure.accept(e);
+            throw e;
+        }
+    }
+
+    private void doWork(Object selfDescriptionRequest) {
+        var externalId = Utils.getExternalId(selfDescriptionRequest);
+        var type = Utils.getType(selfDescriptionRequest);
+        pipelineMetrics.runPipeline(type, submissionTracker.stageListener(externalId), () -> {
+            var processed = Objects.requireNonNull(
+                    pipelineMetrics.record(Stage.CONVERSION, () -> conversionService.convert(selfDescriptionRequest, SelfDescription.class)),
+                    "Converted SD-Document is null. Very strange"
+            );
+            var verifiableCredential = pipelineMetrics.record(Stage.VC_BUILD, () -> buildVerifiableCredential(processed, duration));
+            submissionTracker.converted(externalId, verifiableCredential.getId().toString());
+            clearingHouse.sendToClearingHouse(verifiableCredential, processed.getExternalId(), type);
+        });
+    }
+
+    public static VerifiableCredential buildVerifiableCredential(SelfDescription processed, int durationDays) {
         var verifiableCredential = VerifiableCredential.builder()
                 .contexts(processed.getContexts())
                 .id(URI.create("http://example.org/" + UUID.randomUUID()))
                 .issuer(URI.create(processed.getIssuer()))
                 .issuanceDate(new Date())
-                .expirationDate(Date.from(Instant.now().plus(Duration.ofDays(duration))))
-                .credentialSubject(CredentialSubject.fromJsonObject(processed))
+                .expirationDate(Date.from(Instant.now().plus(Duration.ofDays(durationDays))))
                 .type(processed.getType())
                 .build();
-        clearingHouse.sendToClearingHouse(verifiableCredential, processed.getExternalId());
-        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        // the Self-Description itself is the subject, the encoders write it from this map without a copy
+        verifiableCredential.getJsonObject().put("credentialSubject", processed);
+        return verifiableCredential;
     }
 
     @Override
     public void afterPropertiesSet() {
         decoratedFunction = Arrays.asList(environment.getActiveProfiles()).contains("test")
-                ? this::doWork
-                : authChecker.getAuthorizedFn(this::doWork);
+                ? this::accept
+                : authChecker.getAuthorizedFn(this::accept);
+        decoratedBatchFunction = Arrays.asList(environment.getActiveProfiles()).contains("test")
+                ? this::acceptBatch
+                : authChecker.getAuthorizedFn(this::acceptBatch);
+        decoratedStatusFunction = Arrays.asList(environment.getActiveProfiles()).contains("test")
+                ? this::getStatus
+                : authChecker.getAuthorizedFn(this::getStatus);
     }
 
     @Getter
@@ -22,13 +22,12 @@ package org.eclipse.tractusx.selfdescriptionfactory;
 
 import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
 import java.net.URI;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -56,17 +55,6 @@ public class Utils {
             super("Got too many redirects");
         }
     }
-    public static URLConnection getConnectionIfRedirected(URL url, int tries) throws TooManyRedirectsException, IOException {
-        if (tries == 0) throw new TooManyRedirectsException();
-        URLConnection connection = url.openConnection();
-        String redirect = connection.getHeaderField("Location");
-        if (redirect != null){
-            connection.getInputStream().close();
-            return getConnectionIfRedirected(new URL(redirect), tries - 1);
-        } else {
-            return connection;
-        }
-    }
 
     public static URI uriFromStr(String uriStr) {
         return Try.of(() -> URI.create(uriStr))
@@ -82,4 +70,24 @@ public class Utils {
                         .map(transform).toList()
         ).filter(Predicate.not(Collection::isEmpty));
     }
+
+    public static String getExternalId(Object request) {
+        if (request instanceof LegalParticipantSchema legalParticipantSchema) {
+            return legalParticipantSchema.getExternalId();
+        } else if (request instanceof ServiceOfferingSchema serviceOfferingSchema) {
+            return serviceOfferingSchema.getExternalId();
+        } else {
+            return null;
+        }
+    }
+
+    public static String getType(Object request) {
+        if (request instanceof LegalParticipantSchema legalParticipantSchema) {
+            return legalParticipantSchema.getType();
+        } else if (request instanceof ServiceOfferingSchema serviceOfferingSchema) {
+            return serviceOfferingSchema.getType();
+        } else {
+            return null;
+        }
+    }
 }
@@ -28,6 +28,7 @@ import feign.Feign;
 import feign.Target;
 import feign.form.spring.SpringFormEncoder;
 import org.eclipse.tractusx.selfdescriptionfactory.service.keycloak.KeycloakClient;
+import org.eclipse.tractusx.selfdescriptionfactory.service.resilience.FeignResilience;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
@@ -49,8 +50,9 @@ public class BeansFactory {
     }
 
     @Bean
-    public KeycloakClient keycloakClient(ObjectFactory<HttpMessageConverters> converters, ObjectProvider<HttpMessageConverterCustomizer> customizerProvider){
+    public KeycloakClient keycloakClient(ObjectFactory<HttpMessageConverters> converters, ObjectProvider<HttpMessageConverterCustomizer> customizerProvider, FeignResilience feignResilience){
         return Feign.builder()
+                .addCapability(feignResilience.capability(FeignResilience.KEYCLOAK))
                 .decoder(new SpringDecoder(converters, customizerProvider))
                 .encoder(new SpringFormEncoder(new SpringEncoder(converters)))
                 .contract(new SpringMvcContract())
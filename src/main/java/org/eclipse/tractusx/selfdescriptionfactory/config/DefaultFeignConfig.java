@@ -22,11 +22,17 @@ package org.eclipse.tractusx.selfdescriptionfactory.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Capability;
 import feign.RequestInterceptor;
+import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
 import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.tractusx.selfdescriptionfactory.service.keycloak.KeycloakManager;
+import org.eclipse.tractusx.selfdescriptionfactory.service.resilience.FeignResilience;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatusCode;
@@ -54,6 +60,16 @@ public class DefaultFeignConfig {
         };
     }
 
+    @Bean
+    public Encoder getEncoder(ObjectFactory<HttpMessageConverters> converters, ObjectMapper mapper) {
+        return new VerifiableCredentialEncoder(mapper, new SpringEncoder(converters));
+    }
+
+    @Bean
+    public Capability getResilienceCapability(FeignResilience feignResilience) {
+        return feignResilience.capability();
+    }
+
     @Bean
     public ErrorDecoder getErrorDecoder(ObjectMapper mapper) {
         return (methodKey, response) -> {
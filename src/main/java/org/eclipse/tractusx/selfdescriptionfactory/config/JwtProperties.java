@@ -0,0 +1,53 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.security.jwt")
+@Getter @Setter
+public class JwtProperties {
+    private Cache cache = new Cache();
+    private JwkSet jwkSet = new JwkSet();
+
+    @Getter @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        /** A validated token is kept until it expires, but not longer than this */
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
+
+    @Getter @Setter
+    public static class JwkSet {
+        /** Keys are fetched again at the latest after this time */
+        private Duration timeToLive = Duration.ofMinutes(15);
+        /** Keys are refreshed in background this long before they expire */
+        private Duration refreshAhead = Duration.ofMinutes(1);
+        private Duration refreshTimeout = Duration.ofSeconds(15);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+}
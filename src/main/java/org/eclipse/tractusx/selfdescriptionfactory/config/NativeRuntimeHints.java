@@ -0,0 +1,73 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import com.danubetech.verifiablecredentials.CredentialSubject;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import foundation.identity.jsonld.JsonLDObject;
+import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
+import org.eclipse.tractusx.selfdescriptionfactory.model.v2210.DataAccountExportSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.v2210.TermsAndConditionsSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.*;
+import org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse.ClearingHouseClient;
+import org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse.ClearingHouseOutbox;
+import org.eclipse.tractusx.selfdescriptionfactory.service.keycloak.KeycloakClient;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.IdempotencyStore;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianClient;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.stream.Stream;
+
+/**
+ * Reachability metadata for the native image which Spring AOT cannot derive from the bean definitions.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // types read and written by Jackson: request and response models, the 22.10 fragments put into
+        // Self-Descriptions, credentials returned by the Custodian and the records kept in files
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                SelfdescriptionPostRequest.class, SelfDescriptionBatchItemSchema.class, LegalParticipantSchema.class,
+                ServiceOfferingSchema.class, RegistrationNumberSchema.class, BatchItemResultSchema.class,
+                SubmissionStatusSchema.class, StageTimingSchema.class,
+                DataAccountExportSchema.class, TermsAndConditionsSchema.class,
+                SDFactory.SelfDescription.class, VerifiableCredential.class, CredentialSubject.class, JsonLDObject.class,
+                ClearingHouseOutbox.Entry.class, IdempotencyStore.Submission.class);
+
+        // KeycloakClient is built by Feign.builder() rather than by @EnableFeignClients, the contract of
+        // every client is read from its annotations
+        hints.proxies().registerJdkProxy(KeycloakClient.class);
+        Stream.of(KeycloakClient.class, CustodianClient.class, ClearingHouseClient.class)
+                .forEach(client -> hints.reflection().registerType(client, MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        // JSON-LD contexts bundled with verifiable-credentials-java and served by WebConfig
+        hints.resources()
+                .registerPattern("com/danubetech/verifiablecredentials/**/*.jsonld")
+                .registerPattern("foundation/identity/jsonld/**/*.jsonld")
+                .registerPattern("verifiablecredentials/*.jsonld");
+    }
+}
@@ -0,0 +1,49 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.outbox")
+@Getter @Setter
+public class OutboxProperties {
+    private boolean enabled = false;
+    private Path directory = Path.of("outbox");
+    private Duration sendInterval = Duration.ofSeconds(5);
+    private Duration initialBackoff = Duration.ofSeconds(5);
+    private Duration maxBackoff = Duration.ofMinutes(10);
+    private Delivery delivery = new Delivery();
+
+    @Getter @Setter
+    public static class Delivery {
+        /** Maximum number of credentials delivered in one run of the sender */
+        private int batchSize = 1;
+        /** Maximum number of concurrent requests to the Clearing House */
+        private int maxInFlight = 1;
+        /** How long an incomplete batch waits for more credentials */
+        private Duration linger = Duration.ZERO;
+    }
+}
@@ -0,0 +1,55 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Isolation of the remote services. Timeouts and the concurrency limit are defaults which can be
+ * overridden per client in {@code app.usersDetails}, the circuit breaker settings apply to all clients.
+ */
+@ConfigurationProperties(prefix = "app.resilience")
+@Getter @Setter
+public class ResilienceProperties {
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private int maxConcurrentCalls = 25;
+    private Duration maxWaitForCall = Duration.ZERO;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Getter @Setter
+    public static class CircuitBreaker {
+        /** Percentage of failed calls in the sliding window which opens the circuit */
+        private float failureRateThreshold = 50;
+        /** Number of recent calls the failure rate is computed of */
+        private int slidingWindowSize = 20;
+        /** Number of calls needed before the failure rate is evaluated */
+        private int minimumNumberOfCalls = 10;
+        /** How long calls are rejected before probing the service again */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        /** Number of probing calls in half-open state */
+        private int permittedNumberOfCallsInHalfOpenState = 3;
+    }
+}
@@ -20,23 +20,41 @@
 
 package org.eclipse.tractusx.selfdescriptionfactory.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.Customizer;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AnyRequestMatcher;
@@ -44,15 +62,18 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -68,14 +89,17 @@ public class SecurityConfig {
     public Jwt2AuthoritiesConverter authoritiesConverter() {
         // This is a converter for roles as embedded in the JWT by a Keycloak server
         // Roles are taken from both realm_access.roles & resource_access.{client}.roles
-        return jwt -> Stream.of(
-                        (Map<String, Object>) jwt.getClaims().getOrDefault("realm_access", Map.of()),
-                        (Map<String, Object>) ((Map<String, Object>) jwt.getClaims().getOrDefault("resource_access", Map.of())).getOrDefault(resourceName, Map.of())
+        // The decoder returns the same Jwt instance for a cached token, so the roles are
+        // mapped once per token and dropped together with the token
+        var authorities = Caffeine.newBuilder().weakKeys().<Jwt, Collection<? extends GrantedAuthority>>build();
+        return jwt -> authorities.get(jwt, token -> Stream.of(
+                        (Map<String, Object>) token.getClaims().getOrDefault("realm_access", Map.of()),
+                        (Map<String, Object>) ((Map<String, Object>) token.getClaims().getOrDefault("resource_access", Map.of())).getOrDefault(resourceName, Map.of())
                 ).map(roleMap -> ((List<String>) roleMap.getOrDefault("roles", List.of())))
                 .flatMap(Collection::stream)
                 .distinct()
                 .map(SimpleGrantedAuthority::new)
-                .toList();
+                .toList());
     }
 
     public interface Jwt2AuthenticationConverter extends Converter<Jwt, AbstractAuthenticationToken> {
@@ -86,6 +110,71 @@ public class SecurityConfig {
         return jwt -> new JwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt));
     }
 
+    @Bean
+    public JwtDecoder jwtDecoder(OAuth2ResourceServerProperties resourceServerProperties, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        var jwt = resourceServerProperties.getJwt();
+        if (Objects.isNull(jwt.getJwkSetUri()) && Objects.isNull(jwt.getIssuerUri())) {
+            throw new IllegalStateException("spring.security.oauth2.resourceserver.jwt.jwk-set-uri or issuer-uri must be set");
+        }
+        // Like the auto-configured decoder, neither the key set nor the issuer is contacted before the first request
+        JwtDecoder decoder = new SupplierJwtDecoder(() -> nimbusJwtDecoder(jwt, jwtProperties.getJwkSet()));
+        return jwtProperties.getCache().isEnabled()
+                ? new CachingJwtDecoder(decoder, jwtProperties.getCache(), meterRegistry)
+                : decoder;
+    }
+
+    @SneakyThrows
+    private static JwtDecoder nimbusJwtDecoder(OAuth2ResourceServerProperties.Jwt jwt, JwtProperties.JwkSet jwkSet) {
+        var resourceRetriever = new DefaultResourceRetriever((int) jwkSet.getConnectTimeout().toMillis(), (int) jwkSet.getReadTimeout().toMillis());
+        var jwkSetUri = Objects.nonNull(jwt.getJwkSetUri())
+                ? jwt.getJwkSetUri()
+                : discoverJwkSetUri(jwt.getIssuerUri(), resourceRetriever);
+        // The key set is kept locally and refreshed in background before it expires,
+        // an unknown key id still triggers an immediate (rate limited) reload
+        var jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL(), resourceRetriever)
+                .cache(jwkSet.getTimeToLive().toMillis(), jwkSet.getRefreshTimeout().toMillis())
+                .refreshAheadCache(jwkSet.getRefreshAhead().toMillis(), true)
+                .retrying(true)
+                .build();
+        // spring.security.oauth2.resourceserver.jwt.jws-algorithms, RS256 unless configured
+        var algorithms = jwt.getJwsAlgorithms().stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+        var jwtProcessor = new DefaultJWTProcessor<SecurityContext>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // Claims are validated by Spring Security below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        var decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(jwtValidator(jwt));
+        return decoder;
+    }
+
+    /**
+     * Reads the JWK set URI from the OpenID Connect discovery document of the issuer, as the
+     * auto-configured decoder does when only the issuer URI is set.
+     */
+    @SneakyThrows
+    private static String discoverJwkSetUri(String issuerUri, ResourceRetriever resourceRetriever) {
+        var discoveryUri = URI.create(issuerUri.replaceAll("/$", "") + "/.well-known/openid-configuration");
+        var metadata = JSONObjectUtils.parse(resourceRetriever.retrieveResource(discoveryUri.toURL()).getContent());
+        if (!issuerUri.equals(JSONObjectUtils.getString(metadata, "issuer"))) {
+            throw new IllegalStateException("The issuer in " + discoveryUri + " does not match " + issuerUri);
+        }
+        return Objects.requireNonNull(JSONObjectUtils.getString(metadata, "jwks_uri"), "No jwks_uri in " + discoveryUri);
+    }
+
+    private static OAuth2TokenValidator<Jwt> jwtValidator(OAuth2ResourceServerProperties.Jwt jwt) {
+        var validators = new ArrayList<OAuth2TokenValidator<Jwt>>();
+        validators.add(Objects.nonNull(jwt.getIssuerUri())
+                ? JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri())
+                : JwtValidators.createDefault());
+        if (!jwt.getAudiences().isEmpty()) {
+            validators.add(new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                    aud -> Objects.nonNull(aud) && aud.stream().anyMatch(jwt.getAudiences()::contains)));
+        }
+        return new DelegatingOAuth2TokenValidator<>(validators);
+    }
+
     @SneakyThrows
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, Jwt2AuthenticationConverter authenticationConverter) {
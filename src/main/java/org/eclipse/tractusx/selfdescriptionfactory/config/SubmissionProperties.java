@@ -0,0 +1,55 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.submission")
+@Getter @Setter
+public class SubmissionProperties {
+
+    public enum Mode {
+        /** Self-Description is converted and sent on the request thread */
+        SYNC,
+        /** Self-Description is enqueued and processed by the bounded worker pool */
+        ASYNC
+    }
+
+    private Mode mode = Mode.SYNC;
+    private int corePoolSize = 4;
+    private int maxPoolSize = 8;
+    private int queueCapacity = 1000;
+    private int maxBatchSize = 1000;
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    private Status status = new Status();
+
+    @Getter @Setter
+    public static class Status {
+        /** Status of at most this many submissions is kept */
+        private long maxSize = 100_000;
+        /** Status is kept for this time after its last change */
+        private Duration retention = Duration.ofHours(1);
+    }
+}
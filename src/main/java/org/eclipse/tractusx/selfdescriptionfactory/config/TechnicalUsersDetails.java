@@ -24,6 +24,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Map;
 
 @ConfigurationProperties(prefix = "app")
@@ -37,5 +38,8 @@ public class TechnicalUsersDetails {
         String username,
         String password,
         String clientId,
-        String clientSecret){}
+        String clientSecret,
+        Duration connectTimeout,
+        Duration readTimeout,
+        Integer maxConcurrentCalls){}
 }
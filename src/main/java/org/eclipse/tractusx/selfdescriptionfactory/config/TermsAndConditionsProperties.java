@@ -0,0 +1,53 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.terms-and-conditions")
+@Getter @Setter
+public class TermsAndConditionsProperties {
+
+    private Cache cache = new Cache();
+    private Fetch fetch = new Fetch();
+
+    @Getter @Setter
+    public static class Cache {
+        private long maxSize = 1000;
+        private Duration revalidateAfter = Duration.ofHours(1);
+        private Duration expireAfter = Duration.ofDays(1);
+    }
+
+    @Getter @Setter
+    public static class Fetch {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration downloadTimeout = Duration.ofSeconds(20);
+        private int maxConnectionsPerHost = 16;
+        private DataSize maxDocumentSize = DataSize.ofMegabytes(10);
+        private Duration deadline = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,122 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import foundation.identity.jsonld.JsonLDObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes JSON-LD objects such as VerifiableCredentials into the request body with Jackson's
+ * streaming generator, walking the map graph of the object directly instead of going through
+ * the message converter lookup. Values which are not plain JSON, e.g. generated schema objects,
+ * are written by the ObjectMapper. Null map values are skipped if the ObjectMapper skips them,
+ * if it filters map entries in any other way the whole object is written by the ObjectMapper,
+ * so the body is the same as the ObjectMapper would write. All other bodies are passed to the
+ * delegate.
+ */
+public class VerifiableCredentialEncoder implements Encoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final ObjectMapper objectMapper;
+    private final Encoder delegate;
+    private final boolean streaming;
+    private final boolean skipNullValues;
+
+    public VerifiableCredentialEncoder(ObjectMapper objectMapper, Encoder delegate) {
+        this.objectMapper = objectMapper;
+        this.delegate = delegate;
+        var contentInclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion(Map.class).getContentInclusion();
+        this.streaming = !objectMapper.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                && switch (contentInclusion) {
+                    case ALWAYS, USE_DEFAULTS, NON_NULL -> true;
+                    default -> false;
+                };
+        this.skipNullValues = contentInclusion == JsonInclude.Include.NON_NULL;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        if (!(object instanceof JsonLDObject jsonLDObject)) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        try (var buffer = new ByteArrayBuilder(INITIAL_BUFFER_SIZE)) {
+            try (var generator = objectMapper.getFactory().createGenerator(buffer)) {
+                if (streaming) {
+                    write(generator, jsonLDObject.getJsonObject());
+                } else {
+                    objectMapper.writeValue(generator, jsonLDObject.getJsonObject());
+                }
+            }
+            template.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            template.body(buffer.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new EncodeException("Could not encode " + object.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void write(JsonGenerator generator, Object value) throws IOException {
+        switch (value) {
+            case null -> generator.writeNull();
+            case String string -> generator.writeString(string);
+            case Map<?, ?> map -> {
+                generator.writeStartObject();
+                for (var entry : map.entrySet()) {
+                    if (skipNullValues && entry.getValue() == null) {
+                        continue;
+                    }
+                    generator.writeFieldName(String.valueOf(entry.getKey()));
+                    write(generator, entry.getValue());
+                }
+                generator.writeEndObject();
+            }
+            case Collection<?> collection -> {
+                generator.writeStartArray();
+                for (var item : collection) {
+                    write(generator, item);
+                }
+                generator.writeEndArray();
+            }
+            case Boolean bool -> generator.writeBoolean(bool);
+            case Integer number -> generator.writeNumber(number);
+            case Long number -> generator.writeNumber(number);
+            case URI uri -> generator.writeString(uri.toString());
+            default -> generator.writeObject(value);
+        }
+    }
+}
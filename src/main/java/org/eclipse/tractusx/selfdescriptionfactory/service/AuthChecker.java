@@ -21,25 +21,53 @@
 package org.eclipse.tractusx.selfdescriptionfactory.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.ObjectFactory;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SecurityRoles;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
 import java.util.function.Function;
 
+/**
+ * Makes the same decision as {@code @PreAuthorize("hasAuthority(@securityRoles.createRole)")}, but the role
+ * is resolved once and the authorities of the current authentication are checked directly, without a
+ * method security proxy and SpEL evaluation per call.
+ */
 @Component
 @RequiredArgsConstructor
-public class AuthChecker {
+public class AuthChecker implements InitializingBean {
 
-    private final ObjectFactory<AuthChecker> factory;
+    private final SecurityRoles securityRoles;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+    private String createRole;
 
-    public <T, R> Function<T, R> getAuthorizedFn(Function<T, R> function) {
-        return t -> factory.getObject().checkAuthorized(t, function);
+    @Override
+    public void afterPropertiesSet() {
+        createRole = securityRoles.getCreateRole();
     }
 
-    @PreAuthorize("hasAuthority(@securityRoles.createRole)")
-    public <T, R> R checkAuthorized(T t, Function<T, R> function) {
-        return function.apply(t);
+    public <T, R> Function<T, R> getAuthorizedFn(Function<T, R> function) {
+        return t -> {
+            checkAuthorized();
+            return function.apply(t);
+        };
     }
 
+    private void checkAuthorized() {
+        var authentication = securityContextHolderStrategy.getContext().getAuthentication();
+        if (Objects.isNull(authentication)) {
+            throw new AuthenticationCredentialsNotFoundException("An Authentication object was not found in the SecurityContext");
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (Objects.equals(createRole, authority.getAuthority())) {
+                return;
+            }
+        }
+        throw new AccessDeniedException("Access Denied");
+    }
 }
@@ -21,50 +21,179 @@
 package org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse;
 
 import com.danubetech.verifiablecredentials.VerifiableCredential;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import io.vavr.control.Try;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.config.OutboxProperties;
 import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionTracker;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ClearingHouse implements InitializingBean {
+public class ClearingHouse implements InitializingBean, DisposableBean {
+
+    // authentication, timeout and throttling errors are worth retrying, other client errors are not
+    private static final Set<Integer> RETRYABLE_CLIENT_ERRORS = Set.of(401, 403, 408, 429);
 
     private final TechnicalUsersDetails technicalUsersDetails;
     private final ClearingHouseClient clearingHouseClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
     private final Environment environment;
+    private final ClearingHouseOutbox outbox;
+    private final OutboxProperties outboxProperties;
+    private final PayloadAuditLog payloadAuditLog;
+    private final SubmissionTracker submissionTracker;
+    private final PipelineMetrics pipelineMetrics;
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService drainScheduler;
+    private String clearingHouseName;
+    private boolean sendDisabled;
 
-    public void sendToClearingHouse(VerifiableCredential payload, String externalId) {
-        if (log.isDebugEnabled()) {
-            debug(payload,  externalId);
+    /**
+     * Sends the credential built of a Self-Description of the given type, or appends it to the
+     * outbox when the outbox is enabled.
+     */
+    public void sendToClearingHouse(VerifiableCredential payload, String externalId, String type) {
+        if (sendDisabled || payloadAuditLog.isEnabled()) {
+            // with the test profile every payload is logged instead of being sent
+            payloadAuditLog.log(getUrl(), externalId, payload, sendDisabled);
         }
-        if (!Arrays.asList(environment.getActiveProfiles()).contains("test")) {
-            clearingHouseClient.send(payload, externalId);
+        if (outbox.isEnabled()) {
+            pipelineMetrics.record(Stage.OUTBOX, () -> outbox.append(payload, externalId, type));
+        } else {
+            deliver(payload, externalId);
         }
     }
-    @SneakyThrows
-    protected void debug(VerifiableCredential payload, String externalId) {
-        var annotation = ClearingHouseClient.class.getAnnotation(FeignClient.class);
-        var name = annotation.name();
-        Optional.ofNullable(technicalUsersDetails.getUsersDetails().get(name)).map(TechnicalUsersDetails.UserDetail::uri).ifPresent(uri -> log.debug("URL: {}", uri));
-        log.debug("ExternalId: {}", externalId);
-        log.debug("payload: {}", objectMapper.writeValueAsString(payload));
+
+    private String getUrl() {
+        return Optional.ofNullable(technicalUsersDetails.getUsersDetails())
+                .map(usersDetails -> usersDetails.get(clearingHouseName))
+                .map(TechnicalUsersDetails.UserDetail::uri)
+                .orElse(null);
+    }
+
+    private void deliver(VerifiableCredential payload, String externalId) {
+        send(payload, externalId);
+        submissionTracker.sent(externalId);
+    }
+
+    private void send(VerifiableCredential payload, String externalId) {
+        if (!sendDisabled) {
+            pipelineMetrics.record(Stage.CLEARING_HOUSE, () -> clearingHouseClient.send(payload, externalId));
+        }
     }
 
+    /**
+     * Delivers the pending credentials of the outbox in batches of {@code app.outbox.delivery.batchSize},
+     * keeping up to {@code maxInFlight} requests open at a time. An incomplete batch is held back until
+     * its oldest credential waited {@code linger}. Every credential is acknowledged on its own: a
+     * credential the Clearing House could not accept at the moment is retried with exponential backoff,
+     * and the current run is stopped after its batch as the following deliveries would most probably
+     * fail the same way. Runs every {@code app.outbox.sendInterval} on a thread of its own, so a slow
+     * Clearing House does not hold up the shared scheduler of the application. Every delivery is
+     * recorded in the pipeline of the Self-Description the credential was built of.
+     */
+    void drainOutbox() {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        var delivery = outboxProperties.getDelivery();
+        var batchSize = Math.max(1, delivery.getBatchSize());
+        var due = outbox.getDueEntries();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            var batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            if (batch.size() < batchSize && batch.get(0).nextAttemptAt().plus(delivery.getLinger()).isAfter(Instant.now())) {
+                return;
+            }
+            if (!deliverBatch(batch, Math.max(1, delivery.getMaxInFlight()))) {
+                return;
+            }
+        }
+    }
+
+    private boolean deliverBatch(List<ClearingHouseOutbox.Entry> batch, int maxInFlight) {
+        var inFlight = new Semaphore(maxInFlight);
+        var results = batch.stream()
+                .map(entry -> {
+                    inFlight.acquireUninterruptibly();
+                    return CompletableFuture.supplyAsync(() -> pipelineMetrics.runPipeline(entry.type(), submissionTracker.stageListener(entry.externalId()),
+                                    () -> Try.run(() -> send(entry.verifiableCredential(), entry.externalId()))), deliveryExecutor)
+                            .whenComplete((result, err) -> inFlight.release());
+                }).toList();
+        var allDelivered = true;
+        for (int i = 0; i < batch.size(); i++) {
+            allDelivered &= acknowledge(batch.get(i), results.get(i).join());
+        }
+        return allDelivered;
+    }
+
+    private boolean acknowledge(ClearingHouseOutbox.Entry entry, Try<Void> result) {
+        if (result.isSuccess()) {
+            log.debug("Delivered credential for externalId {}", entry.externalId());
+            outbox.delivered(entry);
+            submissionTracker.sent(entry.externalId());
+            return true;
+        } else if (isRejected(result.getCause())) {
+            log.error("Clearing House rejected credential for externalId {}, moved to failed outbox entries: {}", entry.externalId(), result.getCause().getMessage());
+            outbox.failed(entry);
+            submissionTracker.failed(entry.externalId(), result.getCause().getMessage());
+            return true;
+        } else {
+            log.warn("Could not deliver credential for externalId {} (attempt {}), {} credentials pending: {}", entry.externalId(), entry.attempts() + 1, outbox.size(), result.getCause().getMessage());
+            outbox.retryLater(entry);
+            submissionTracker.deliveryFailed(entry.externalId(), result.getCause().getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isRejected(Throwable err) {
+        return err instanceof ResponseStatusException responseStatusException
+                && responseStatusException.getStatusCode().is4xxClientError()
+                && !RETRYABLE_CLIENT_ERRORS.contains(responseStatusException.getStatusCode().value());
+    }
 
     @Override
     public void afterPropertiesSet() {
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        clearingHouseName = ClearingHouseClient.class.getAnnotation(FeignClient.class).name();
+        sendDisabled = Arrays.asList(environment.getActiveProfiles()).contains("test");
+        if (outbox.isEnabled()) {
+            drainScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "sd-outbox-drain");
+                thread.setDaemon(true);
+                return thread;
+            });
+            var interval = outboxProperties.getSendInterval().toMillis();
+            drainScheduler.scheduleWithFixedDelay(
+                    () -> Try.run(this::drainOutbox).onFailure(err -> log.error("Could not drain the outbox", err)),
+                    interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (drainScheduler != null) {
+            drainScheduler.shutdownNow();
+        }
+        deliveryExecutor.shutdownNow();
     }
 }
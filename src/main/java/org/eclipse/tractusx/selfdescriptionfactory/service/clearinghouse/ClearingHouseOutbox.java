@@ -0,0 +1,221 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.OutboxProperties;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * File-backed outbox of VerifiableCredentials waiting to be delivered to the Clearing House.
+ * Every pending credential is kept in its own file named after the hash of its externalId, so
+ * a credential submitted again for the same externalId replaces the pending one instead of
+ * being delivered twice. Files are written atomically and read back on startup, so pending
+ * credentials survive a restart. Credentials which the Clearing House rejected permanently are
+ * moved to the {@code failed} subdirectory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClearingHouseOutbox implements InitializingBean {
+
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String FAILED_DIRECTORY = "failed";
+    private static final int LOCK_STRIPES = 64;
+
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+    private ObjectMapper entryMapper;
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+    private final Lock[] locks = IntStream.range(0, LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+
+    /**
+     * A pending credential, {@code type} is the type of the Self-Description it was built of
+     * and is missing in entries written by previous versions.
+     */
+    public record Entry(String key, String externalId, String type, Instant createdAt, int attempts, Instant nextAttemptAt, Map<String, Object> credential) {
+        public VerifiableCredential verifiableCredential() {
+            return VerifiableCredential.fromJsonObject(credential);
+        }
+    }
+
+    public boolean isEnabled() {
+        return outboxProperties.isEnabled();
+    }
+
+    public void append(VerifiableCredential payload, String externalId, String type) {
+        var key = Objects.nonNull(externalId) ? DigestUtils.sha256Hex(externalId) : UUID.randomUUID().toString();
+        var now = Instant.now();
+        withLock(key, () -> {
+            if (pending.containsKey(key)) {
+                log.debug("Replacing pending credential for externalId {}", externalId);
+            }
+            pending.put(key, write(new Entry(key, externalId, type, now, 0, now, payload.getJsonObject())));
+        });
+    }
+
+    /**
+     * Pending entries which are due for delivery, oldest first.
+     */
+    public List<Entry> getDueEntries() {
+        var now = Instant.now();
+        return pending.values().stream()
+                .filter(entry -> !entry.nextAttemptAt().isAfter(now))
+                .sorted(Comparator.comparing(Entry::createdAt))
+                .toList();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public void delivered(Entry entry) {
+        // an entry replaced while it was delivered is left alone, the new credential is still pending
+        withLock(entry.key(), () -> {
+            if (pending.remove(entry.key(), entry)) {
+                Try.run(() -> Files.deleteIfExists(entryPath(entry.key())))
+                        .onFailure(err -> log.warn("Could not delete delivered outbox entry {}: {}", entry.key(), err.getMessage()));
+            }
+        });
+    }
+
+    public void retryLater(Entry entry) {
+        withLock(entry.key(), () -> {
+            if (pending.get(entry.key()) == entry) {
+                pending.put(entry.key(), write(new Entry(entry.key(), entry.externalId(), entry.type(), entry.createdAt(), entry.attempts() + 1, Instant.now().plus(getBackoff(entry.attempts())), entry.credential())));
+            }
+        });
+    }
+
+    public void failed(Entry entry) {
+        withLock(entry.key(), () -> {
+            if (pending.remove(entry.key(), entry)) {
+                Try.run(() -> Files.move(entryPath(entry.key()), outboxProperties.getDirectory().resolve(FAILED_DIRECTORY).resolve(entry.key() + ENTRY_SUFFIX), StandardCopyOption.REPLACE_EXISTING))
+                        .onFailure(err -> log.warn("Could not move failed outbox entry {}: {}", entry.key(), err.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Serializes changes of an entry. Locks are striped by key, and are not monitors, so threads
+     * writing entries do not pin the carrier of a virtual thread.
+     */
+    private void withLock(String key, Runnable action) {
+        var lock = locks[Math.floorMod(key.hashCode(), locks.length)];
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Duration getBackoff(int attempts) {
+        var maxBackoff = outboxProperties.getMaxBackoff();
+        var backoff = outboxProperties.getInitialBackoff();
+        for (int i = 0; i < attempts && backoff.compareTo(maxBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    @SneakyThrows
+    private Entry write(Entry entry) {
+        var target = entryPath(entry.key());
+        var tmp = target.resolveSibling(entry.key() + TMP_SUFFIX);
+        try (var channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.wrap(entryMapper.writeValueAsBytes(entry));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return entry;
+    }
+
+    private Path entryPath(String key) {
+        return outboxProperties.getDirectory().resolve(key + ENTRY_SUFFIX);
+    }
+
+    private void replay() throws IOException {
+        try (var files = Files.list(outboxProperties.getDirectory())) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                var fileName = file.getFileName().toString();
+                if (fileName.endsWith(TMP_SUFFIX)) {
+                    // an interrupted write, the previous version of the entry is still in place
+                    Try.run(() -> Files.delete(file));
+                } else if (fileName.endsWith(ENTRY_SUFFIX)) {
+                    Try.of(() -> entryMapper.readValue(file.toFile(), Entry.class))
+                            .onSuccess(entry -> pending.put(entry.key(), entry))
+                            .onFailure(err -> {
+                                log.error("Could not read outbox entry {}: {}", file, err.getMessage());
+                                Try.run(() -> Files.move(file, outboxProperties.getDirectory().resolve(FAILED_DIRECTORY).resolve(fileName), StandardCopyOption.REPLACE_EXISTING));
+                            });
+                }
+            });
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} pending credentials from outbox {}", pending.size(), outboxProperties.getDirectory());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        // the credential is written like it is sent, timestamps of the entry are written as ISO-8601
+        entryMapper = objectMapper.copy()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (outboxProperties.isEnabled()) {
+            Files.createDirectories(outboxProperties.getDirectory().resolve(FAILED_DIRECTORY));
+            replay();
+        }
+    }
+}
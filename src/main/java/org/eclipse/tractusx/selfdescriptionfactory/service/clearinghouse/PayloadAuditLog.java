@@ -0,0 +1,143 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.config.AuditProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs a sample of the payloads sent to the Clearing House at debug level. The payload is
+ * serialized and written by a background thread, only up to {@code app.audit.maxPayloadSize},
+ * and payloads which do not fit into the queue of the background thread are skipped, so the
+ * audit log never slows down the submission.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PayloadAuditLog implements InitializingBean, DisposableBean {
+
+    private final AuditProperties auditProperties;
+    private final ObjectMapper objectMapper;
+    private ExecutorService writer;
+
+    public boolean isEnabled() {
+        return log.isDebugEnabled() && auditProperties.getSampleRate() > 0;
+    }
+
+    /**
+     * Logs the payload if it is sampled, or in any case if {@code always} is set.
+     */
+    public void log(String url, String externalId, VerifiableCredential payload, boolean always) {
+        if (!log.isDebugEnabled() || !(always || ThreadLocalRandom.current().nextDouble() < auditProperties.getSampleRate())) {
+            return;
+        }
+        Try.run(() -> writer.execute(() -> write(url, externalId, payload)))
+                .onFailure(RejectedExecutionException.class, err -> log.trace("Audit log queue is full, payload for externalId {} skipped", externalId));
+    }
+
+    private void write(String url, String externalId, VerifiableCredential payload) {
+        var truncatingWriter = new TruncatingWriter(Math.toIntExact(auditProperties.getMaxPayloadSize().toBytes()));
+        Try.run(() -> objectMapper.writeValue(truncatingWriter, payload.getJsonObject()))
+                .onFailure(err -> {
+                    if (!truncatingWriter.isTruncated()) {
+                        log.debug("Could not serialize payload for externalId {}: {}", externalId, err.getMessage());
+                    }
+                });
+        log.debug("URL: {}, ExternalId: {}, payload{}: {}", url, externalId, truncatingWriter.isTruncated() ? " (truncated)" : "", truncatingWriter);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        writer = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(auditProperties.getQueueCapacity()),
+                runnable -> {
+                    var thread = new Thread(runnable, "sd-audit-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdownNow();
+    }
+
+    /**
+     * Keeps the first characters written to it and aborts serialization once the limit is reached.
+     */
+    private static final class TruncatingWriter extends Writer {
+        private final StringBuilder content = new StringBuilder();
+        private final int limit;
+        private boolean truncated;
+
+        private TruncatingWriter(int limit) {
+            this.limit = limit;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            var remaining = limit - content.length();
+            content.append(chars, offset, Math.min(length, remaining));
+            if (length > remaining) {
+                truncated = true;
+                throw new IOException("Payload exceeds " + limit + " characters");
+            }
+        }
+
+        @Override
+        public void flush() {
+            // nothing buffered
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+
+        @Override
+        public String toString() {
+            return content.toString();
+        }
+    }
+}
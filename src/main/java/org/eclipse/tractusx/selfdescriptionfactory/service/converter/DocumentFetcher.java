@@ -0,0 +1,230 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.converter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.Utils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TermsAndConditionsProperties;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Downloads documents referenced by Self-Descriptions (e.g. Terms and Conditions) using a shared,
+ * connection-pooled HTTP client. Every request is bounded by connect and read timeouts, by the
+ * number of concurrent connections per host, by the document size and by the overall download
+ * time. Redirects are followed up to {@code app.maxRedirect} requests in total.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentFetcher implements InitializingBean {
+    private static final Set<Integer> REDIRECT_CODES = Set.of(301, 302, 303, 307, 308);
+
+    @Value("${app.maxRedirect:5}")
+    private int maxRedirect;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final TermsAndConditionsProperties termsAndConditionsProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+    private DistributionSummary documentSizes;
+
+    /**
+     * Requests the document and streams its body into the subscriber created by the body handler.
+     * The handler is only called for the final response, bodies of redirects, of error responses
+     * and of {@code 304 Not Modified} are discarded. Responses with an error status are reported
+     * as failures.
+     */
+    public <T> Try<HttpResponse<T>> fetch(URI uri, Map<String, String> headers, HttpResponse.BodyHandler<T> bodyHandler) {
+        var fetchTime = Timer.start(meterRegistry);
+        return Try.of(() -> {
+                    var target = uri;
+                    for (var tries = maxRedirect; tries > 0; tries--) {
+                        var response = send(target, headers, bodyHandler);
+                        if (REDIRECT_CODES.contains(response.statusCode())) {
+                            var redirectFrom = target;
+                            target = target.resolve(response.headers().firstValue(HttpHeaders.LOCATION)
+                                    .orElseThrow(() -> new IOException("Got redirect without location from '" + redirectFrom + "'")));
+                        } else if (response.statusCode() >= 400) {
+                            throw new IOException("Got status " + response.statusCode() + " from '" + target + "'");
+                        } else {
+                            return response;
+                        }
+                    }
+                    throw new Utils.TooManyRedirectsException();
+                })
+                .andFinally(() -> {
+                    var nanos = fetchTime.stop(meterRegistry.timer("sdfactory.document.fetch"));
+                    log.debug("Fetching '{}' took {} ms", uri, TimeUnit.NANOSECONDS.toMillis(nanos));
+                });
+    }
+
+    private <T> HttpResponse<T> send(URI target, Map<String, String> headers, HttpResponse.BodyHandler<T> bodyHandler) throws Exception {
+        var fetchProperties = termsAndConditionsProperties.getFetch();
+        var permits = hostPermits.computeIfAbsent(
+                String.valueOf(target.getHost()),
+                host -> new Semaphore(fetchProperties.getMaxConnectionsPerHost())
+        );
+        if (!permits.tryAcquire(fetchProperties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IOException("Too many concurrent connections to '" + target.getHost() + "'");
+        }
+        try {
+            var download = httpClient.sendAsync(buildRequest(target, headers), responseInfo -> subscribe(target, responseInfo, bodyHandler));
+            try {
+                return download.get(fetchProperties.getDownloadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                download.cancel(true);
+                throw new IOException("Could not download '" + target + "' within " + fetchProperties.getDownloadTimeout(), e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private HttpRequest buildRequest(URI uri, Map<String, String> headers) {
+        var request = HttpRequest.newBuilder(uri)
+                .timeout(termsAndConditionsProperties.getFetch().getReadTimeout())
+                .GET();
+        headers.forEach(request::header);
+        return request.build();
+    }
+
+    private <T> HttpResponse.BodySubscriber<T> subscribe(URI target, HttpResponse.ResponseInfo responseInfo, HttpResponse.BodyHandler<T> bodyHandler) {
+        var status = responseInfo.statusCode();
+        if (REDIRECT_CODES.contains(status) || status == HttpStatus.NOT_MODIFIED.value() || status >= 400) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        return new LimitedBodySubscriber<>(
+                target,
+                bodyHandler.apply(responseInfo),
+                termsAndConditionsProperties.getFetch().getMaxDocumentSize().toBytes(),
+                documentSizes
+        );
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(termsAndConditionsProperties.getFetch().getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (virtualThreads) {
+            // response handling and hashing of the body run on virtual threads as well
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        httpClient = builder.build();
+        documentSizes = DistributionSummary.builder("sdfactory.document.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Passes the body through to the delegate until the size limit is exceeded, then cancels
+     * the download and fails the body. The size of every completed body is recorded.
+     */
+    private static final class LimitedBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final URI target;
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final long maxBytes;
+        private final DistributionSummary documentSizes;
+        private Flow.Subscription subscription;
+        private long received;
+        private boolean done;
+
+        private LimitedBodySubscriber(URI target, HttpResponse.BodySubscriber<T> delegate, long maxBytes, DistributionSummary documentSizes) {
+            this.target = target;
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+            this.documentSizes = documentSizes;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            if (done) return;
+            received += item.stream().mapToLong(ByteBuffer::remaining).sum();
+            if (received > maxBytes) {
+                done = true;
+                subscription.cancel();
+                delegate.onError(new IOException("Document '" + target + "' is larger than " + maxBytes + " bytes"));
+            } else {
+                delegate.onNext(item);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) return;
+            done = true;
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) return;
+            done = true;
+            documentSizes.record(received);
+            log.debug("Downloaded {} bytes from '{}'", received, target);
+            delegate.onComplete();
+        }
+    }
+}
@@ -23,10 +23,21 @@ package org.eclipse.tractusx.selfdescriptionfactory.service.converter;
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.RegistrationNumberSchema.TypeEnum;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RegCodeMapper {
+    private static final Map<String, Map<TypeEnum, String>> regCodeMappers = new ConcurrentHashMap<>();
+
     private RegCodeMapper(){}
+
+    /**
+     * Returns the immutable mapping for the prefix, it is created once per prefix and shared.
+     */
     public static Map<TypeEnum, String> getRegCodeMapper(String prefix) {
+        return regCodeMappers.computeIfAbsent(prefix, RegCodeMapper::createRegCodeMapper);
+    }
+
+    private static Map<TypeEnum, String> createRegCodeMapper(String prefix) {
         return Map.of(
                 TypeEnum.TAXID, prefix.concat("local"),
                 TypeEnum.VATID, prefix.concat("vatID"),
@@ -1,6 +1,6 @@
 /********************************************************************************
- * Copyright (c) 2022,2023 T-Systems International GmbH
- * Copyright (c) 2022,2023 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
  *
  * See the NOTICE file(s) distributed with this work for additional
  * information regarding copyright ownership.
@@ -20,34 +20,132 @@
 
 package org.eclipse.tractusx.selfdescriptionfactory.service.converter;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.eclipse.tractusx.selfdescriptionfactory.Utils;
-import org.springframework.beans.factory.annotation.Value;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TermsAndConditionsProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
+/**
+ * Provides SHA-256 hashes of Terms and Conditions documents. Hashes are kept in an application-wide
+ * cache keyed by the document URL. After {@code app.terms-and-conditions.cache.revalidate-after}
+ * a cached entry is revalidated in background with a conditional request, so an unchanged document
+ * is never downloaded again. Documents are downloaded on virtual threads of the fetch executor,
+ * the cache only holds the future of a download, so no thread waits for a download inside the cache.
+ */
+@Slf4j
 @Component
-public class TermsAndConditionsHelper {
-    @Value("${app.maxRedirect:5}")
-    private int maxRedirect;
+@RequiredArgsConstructor
+public class TermsAndConditionsHelper implements InitializingBean, DisposableBean {
+    private final DocumentFetcher documentFetcher;
+    private final TermsAndConditionsProperties termsAndConditionsProperties;
+    private final MeterRegistry meterRegistry;
+    private final PipelineMetrics pipelineMetrics;
+
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private AsyncLoadingCache<String, Document> documents;
+
+    record Document(String hash, String eTag, String lastModified) {}
 
     public Map<String, Object> getTermsAndConditions(String urlStr, Function<String, Map<String, Object>> urlMaker, Function<String, Map<String, Object>> hashMaker) {
-        return Try.of(() -> URI.create(urlStr).toURL())
-                .mapTry(url -> Utils.getConnectionIfRedirected(url, maxRedirect))
-                .flatMap(urlConnection -> Try.withResources(urlConnection::getInputStream).of(DigestUtils::sha256Hex))
-                .map(sha -> {
-                            Map<String, Object> res = new LinkedHashMap<>();
-                            if (urlMaker != null) res.putAll(urlMaker.apply(urlStr));
-                            if (hashMaker != null) res.putAll(hashMaker.apply(sha));
-                            return res;
-                }).recoverWith(Utils.mapFailure(err ->
+        var sha = getHash(urlStr);
+        Map<String, Object> res = new LinkedHashMap<>();
+        if (urlMaker != null) res.putAll(urlMaker.apply(urlStr));
+        if (hashMaker != null) res.putAll(hashMaker.apply(sha));
+        return res;
+    }
+
+    public String getHash(String urlStr) {
+        return Try.of(() -> getHashAsync(urlStr).join())
+                .recoverWith(Utils.mapFailure(err -> err instanceof CompletionException && err.getCause() != null ? err.getCause() : err))
+                .get();
+    }
+
+    /**
+     * Starts the download of a document unless it is cached or already being downloaded.
+     */
+    public CompletableFuture<String> getHashAsync(String urlStr) {
+        return documents.get(urlStr).thenApply(Document::hash);
+    }
+
+    /**
+     * Parallel counterpart of {@link Utils#getNonEmptyListFromCommaSeparated(String, Function)} for
+     * the comma-separated list of Terms and Conditions URLs. The documents are downloaded concurrently,
+     * the result keeps the order of the source and all documents, also a single one, must be retrieved
+     * within {@code app.terms-and-conditions.fetch.deadline}.
+     */
+    public <T> Optional<List<T>> getTermsAndConditionsList(String commaSeparatedUrls, Function<String, T> transform) {
+        return Utils.getNonEmptyListFromCommaSeparated(commaSeparatedUrls, Function.identity())
+                .map(urls -> pipelineMetrics.record(Stage.TERMS_AND_CONDITIONS, () -> transformInParallel(urls, transform)));
+    }
+
+    private <T> List<T> transformInParallel(List<String> urls, Function<String, T> transform) {
+        var deadline = termsAndConditionsProperties.getFetch().getDeadline();
+        // all downloads are started before waiting for any of them, the futures are shared with concurrent
+        // requests for the same documents, so they are not cancelled when the deadline is exceeded
+        var downloads = urls.stream().map(this::getHashAsync).toList();
+        return Try.of(() -> CompletableFuture.allOf(downloads.toArray(CompletableFuture[]::new)).get(deadline.toMillis(), TimeUnit.MILLISECONDS))
+                .map(ignored -> urls.stream().map(transform).toList())
+                .recoverWith(Utils.mapFailure(err -> switch (err) {
+                    case ExecutionException executionException -> executionException.getCause();
+                    case TimeoutException timeoutException -> new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Could not retrieve TermsAndConditions within " + deadline,
+                            timeoutException);
+                    default -> err;
+                }))
+                .get();
+    }
+
+    private Document fetch(String urlStr, Document cached) {
+        return Try.of(() -> URI.create(urlStr))
+                .flatMap(uri -> documentFetcher.fetch(
+                        uri,
+                        getConditionalHeaders(cached),
+                        Sha256Subscriber.bodyHandler()
+                )).map(response -> cached != null && response.statusCode() == HttpStatus.NOT_MODIFIED.value()
+                        ? cached
+                        : new Document(
+                                response.body(),
+                                response.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+                                response.headers().firstValue(HttpHeaders.LAST_MODIFIED).orElse(null)
+                        )
+                ).recoverWith(Utils.mapFailure(err ->
                                 new ResponseStatusException(
                                         HttpStatus.BAD_REQUEST,
                                         "Could not retrieve TermsAndConditions from '" + urlStr + "'",
@@ -55,4 +153,78 @@ public class TermsAndConditionsHelper {
                         )
                 ).get();
     }
+
+    private static Map<String, String> getConditionalHeaders(Document cached) {
+        var headers = new HashMap<String, String>();
+        Optional.ofNullable(cached).map(Document::eTag)
+                .ifPresent(eTag -> headers.put(HttpHeaders.IF_NONE_MATCH, eTag));
+        Optional.ofNullable(cached).map(Document::lastModified)
+                .ifPresent(lastModified -> headers.put(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        return headers;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var cacheProperties = termsAndConditionsProperties.getCache();
+        documents = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaxSize())
+                .refreshAfterWrite(cacheProperties.getRevalidateAfter())
+                .expireAfterWrite(cacheProperties.getExpireAfter())
+                .recordStats()
+                .executor(fetchExecutor)
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public Document load(@NonNull String urlStr) {
+                        return fetch(urlStr, null);
+                    }
+
+                    @Override
+                    public Document reload(@NonNull String urlStr, @NonNull Document cached) {
+                        log.debug("Revalidating TermsAndConditions from '{}'", urlStr);
+                        return fetch(urlStr, cached);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "termsAndConditions");
+    }
+
+    @Override
+    public void destroy() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Hashes the body chunk by chunk as the HTTP client receives it, so the document is never
+     * buffered as a whole and its buffers are passed to the digest without copying.
+     */
+    private static final class Sha256Subscriber implements Flow.Subscriber<List<ByteBuffer>> {
+        private final MessageDigest digest = DigestUtils.getSha256Digest();
+
+        static HttpResponse.BodyHandler<String> bodyHandler() {
+            return responseInfo -> HttpResponse.BodySubscribers.fromSubscriber(new Sha256Subscriber(), Sha256Subscriber::getHash);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            item.forEach(digest::update);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // the failure is reported through the body of the response
+        }
+
+        @Override
+        public void onComplete() {
+            // the hash is taken by the finisher
+        }
+
+        String getHash() {
+            return Hex.encodeHexString(digest.digest());
+        }
+    }
 }
@@ -39,6 +39,13 @@ import java.util.Map;
 @Profile("fc-ctx")
 public class LegalParticipantSDConverter implements Converter<LegalParticipantSchema, SDFactory.SelfDescription> {
 
+    private static final Map<String, Object> CONTEXT = Map.of(
+            "gx", "https://w3id.org/gaia-x/gax-trust-framework#",
+            "xsd", "http://www.w3.org/2001/XMLSchema#",
+            "vcard", "http://www.w3.org/2006/vcard/ns#",
+            "ctxsd", "https://w3id.org/catena-x/core#"
+    );
+
     private final CustodianWallet custodianWallet;
 
     @Override
@@ -50,12 +57,7 @@ public class LegalParticipantSDConverter implements Converter<LegalParticipantSc
             );
         }
         var legalParticipantSD = new SDFactory.SelfDescription(List.of(), legalParticipantSchema.getHolder(), legalParticipantSchema.getIssuer(), legalParticipantSchema.getExternalId(), null);
-        legalParticipantSD.put("@context", Map.of(
-                "gx", "https://w3id.org/gaia-x/gax-trust-framework#",
-                "xsd", "http://www.w3.org/2001/XMLSchema#",
-                "vcard", "http://www.w3.org/2006/vcard/ns#",
-                "ctxsd", "https://w3id.org/catena-x/core#")
-        );
+        legalParticipantSD.put("@context", CONTEXT);
         legalParticipantSD.put("@id", custodianWallet.getWalletData(legalParticipantSchema.getHolder()).get("did"));
         legalParticipantSD.put("@type", "gx:LegalPerson");
         legalParticipantSD.put("ctxsd:bpn", legalParticipantSchema.getBpn());
@@ -40,19 +40,31 @@ import java.util.function.Function;
 @Profile("fc-ctx")
 public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSchema, SDFactory.SelfDescription> {
 
+    private static final Map<String, Object> CONTEXT = Map.of(
+            "gx", "https://w3id.org/gaia-x/gax-trust-framework#",
+            "gax-core", "https://w3id.org/gaia-x/core#",
+            "ctxsd", "https://w3id.org/catena-x/core#",
+            "xsd", "http://www.w3.org/2001/XMLSchema#"
+    );
+    private static final Map<String, Object> DATA_ACCOUNT_EXPORT = Map.of(
+            "gx:requestType", "email",
+            "gx:accessType", "digital",
+            "gx:formatType", "json"
+    );
+    private static final Map<String, Object> TERMS_AND_CONDITIONS_PLACEHOLDER = Map.of(
+            "gx:content", Map.of(
+                    "@type", "xsd:anyURI",
+                    "@value", "http://example.org/tac-placeholder"),
+            "gx:hash", "1234"
+    );
+
     private final CustodianWallet custodianWallet;
     private final TermsAndConditionsHelper termsAndConditionsHelper;
 
     @Override
     public SDFactory.SelfDescription convert(ServiceOfferingSchema serviceOfferingSchema) {
         var serviceOfferingSD = new SDFactory.SelfDescription(List.of(), serviceOfferingSchema.getHolder(), serviceOfferingSchema.getIssuer(), serviceOfferingSchema.getExternalId(), null);
-        serviceOfferingSD.put("@context", Map.of(
-                        "gx", "https://w3id.org/gaia-x/gax-trust-framework#",
-                        "gax-core", "https://w3id.org/gaia-x/core#",
-                        "ctxsd", "https://w3id.org/catena-x/core#",
-                        "xsd", "http://www.w3.org/2001/XMLSchema#"
-                )
-        );
+        serviceOfferingSD.put("@context", CONTEXT);
         serviceOfferingSD.put("@id", custodianWallet.getWalletData(serviceOfferingSchema.getHolder()).get("did"));
         serviceOfferingSD.put("@type", "gx:ServiceOffering");
         serviceOfferingSD.put("ctxsd:connector-url", "https://connector-placeholder.net");
@@ -61,11 +73,7 @@ public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSche
         serviceOfferingSD.put("gax-core:offeredBy", Map.of(
                 "@id", serviceOfferingSchema.getProvidedBy())
         );
-        serviceOfferingSD.put("gx:dataAccountExport", Map.of(
-                "gx:requestType", "email",
-                "gx:accessType", "digital",
-                "gx:formatType", "json")
-        );
+        serviceOfferingSD.put("gx:dataAccountExport", DATA_ACCOUNT_EXPORT);
         var setter = new Object() {
             Consumer<Object> set(String fieldName) {
                 return any -> serviceOfferingSD.put(fieldName, any);
@@ -75,7 +83,7 @@ public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSche
                 .map(l -> l.size() == 1 ? l.iterator().next() : l)
                 .ifPresent(setter.set("gx:aggregationOf"));
         setter.set("gx:termsAndConditions").accept(
-                Utils.getNonEmptyListFromCommaSeparated(
+                termsAndConditionsHelper.getTermsAndConditionsList(
                                 serviceOfferingSchema.getTermsAndConditions(),
                                 url -> termsAndConditionsHelper.getTermsAndConditions(
                                         url,
@@ -87,12 +95,7 @@ public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSche
                                         h -> Map.of("gx:hash", h)
                                 )
                         ).map(l -> l.size() == 1 ? l.iterator().next() : l)
-                        .orElse(Map.of(
-                                "gx:content", Map.of(
-                                        "@type", "xsd:anyURI",
-                                        "@value", "http://example.org/tac-placeholder"),
-                                "gx:hash", "1234")
-                        )
+                        .orElse(TERMS_AND_CONDITIONS_PLACEHOLDER)
         );
         setter.set("gx:policy").accept(
                 Utils.getNonEmptyListFromCommaSeparated(
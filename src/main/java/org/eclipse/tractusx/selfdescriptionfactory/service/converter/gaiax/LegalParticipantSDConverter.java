@@ -26,6 +26,7 @@ import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantS
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.RegistrationNumberSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.service.converter.RegCodeMapper;
 import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.converter.Converter;
@@ -38,18 +39,21 @@ import java.util.Map;
 @Component
 @RequiredArgsConstructor
 @Profile("gaia-x-ctx")
-public class LegalParticipantSDConverter implements Converter<LegalParticipantSchema, SDFactory.SelfDescription> {
+public class LegalParticipantSDConverter implements Converter<LegalParticipantSchema, SDFactory.SelfDescription>, InitializingBean {
+
+    private static final Map<String, Object> CONTEXT = Map.of("ctxsd", "https://w3id.org/catena-x/core#");
 
     private final CustodianWallet custodianWallet;
     private final Map<RegistrationNumberSchema.TypeEnum, String> regCodeMapper = RegCodeMapper.getRegCodeMapper("gx:");
     @Value("${app.verifiableCredentials.gaia-x-participant-schema}")
     private URI contextUri;
+    private List<URI> contexts;
 
 
     @Override
     public SDFactory.SelfDescription convert(LegalParticipantSchema legalParticipantSchema) {
-        var legalParticipantSD = new SDFactory.SelfDescription(List.of(contextUri), legalParticipantSchema.getHolder(), legalParticipantSchema.getIssuer(), legalParticipantSchema.getExternalId(), null);
-        legalParticipantSD.put("@context", Map.of("ctxsd", "https://w3id.org/catena-x/core#"));
+        var legalParticipantSD = new SDFactory.SelfDescription(contexts, legalParticipantSchema.getHolder(), legalParticipantSchema.getIssuer(), legalParticipantSchema.getExternalId(), null);
+        legalParticipantSD.put("@context", CONTEXT);
         legalParticipantSD.put("id", custodianWallet.getWalletData(legalParticipantSchema.getBpn()).get("did"));
         legalParticipantSD.put("type", "gx:LegalParticipant");
         legalParticipantSD.put("ctxsd:bpn", legalParticipantSchema.getBpn());
@@ -62,4 +66,9 @@ public class LegalParticipantSDConverter implements Converter<LegalParticipantSc
         legalParticipantSD.put("gx:legalAddress", Map.of("gx:countrySubdivisionCode", legalParticipantSchema.getLegalAddressCountry()));
         return legalParticipantSD;
     }
+
+    @Override
+    public void afterPropertiesSet() {
+        contexts = List.of(contextUri);
+    }
 }
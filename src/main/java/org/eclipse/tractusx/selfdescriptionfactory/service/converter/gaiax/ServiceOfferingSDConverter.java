@@ -26,12 +26,14 @@ import org.eclipse.tractusx.selfdescriptionfactory.Utils;
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.service.converter.TermsAndConditionsHelper;
 import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,33 +43,33 @@ import java.util.function.Function;
 @Component
 @RequiredArgsConstructor
 @Profile("gaia-x-ctx")
-public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSchema, SDFactory.SelfDescription> {
+public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSchema, SDFactory.SelfDescription>, InitializingBean {
+
+    private static final Map<String, Object> CONTEXT = Map.of("ctxsd", "https://w3id.org/catena-x/core#");
+    private static final List<Map<String, Object>> DATA_ACCOUNT_EXPORT = List.of(createDataAccountExportNode());
 
     private final CustodianWallet custodianWallet;
     private final TermsAndConditionsHelper termsAndConditionsHelper;
     @Value("${app.verifiableCredentials.gaia-x-service-schema}")
     private URI contextUri;
+    private List<URI> contexts;
 
     @Override
     public SDFactory.SelfDescription convert(ServiceOfferingSchema serviceOfferingSchema) {
-        var serviceOfferingSD = new SDFactory.SelfDescription(List.of(contextUri), serviceOfferingSchema.getHolder(), serviceOfferingSchema.getIssuer(), serviceOfferingSchema.getExternalId(), null);
-        serviceOfferingSD.put("@context", Map.of("ctxsd", "https://w3id.org/catena-x/core#"));
+        var serviceOfferingSD = new SDFactory.SelfDescription(contexts, serviceOfferingSchema.getHolder(), serviceOfferingSchema.getIssuer(), serviceOfferingSchema.getExternalId(), null);
+        serviceOfferingSD.put("@context", CONTEXT);
         serviceOfferingSD.put("id", custodianWallet.getWalletData(serviceOfferingSchema.getHolder()).get("did"));
         serviceOfferingSD.put("type", "gx:ServiceOffering");
         serviceOfferingSD.put("ctxsd:connector-url", "https://connector-placeholder.net");
         serviceOfferingSD.put("gx:providedBy", Map.of("id", serviceOfferingSchema.getProvidedBy()));
-        Map<String, Object> dataAccountExportNode = new LinkedHashMap<>();
-        dataAccountExportNode.put("gx:requestType", "email");
-        dataAccountExportNode.put("gx:accessType", "digital");
-        dataAccountExportNode.put("gx:formatType", "json");
-        serviceOfferingSD.put("gx:dataAccountExport", List.of(dataAccountExportNode));
+        serviceOfferingSD.put("gx:dataAccountExport", DATA_ACCOUNT_EXPORT);
         var setter = new Object() {
             <T> Consumer<T> set(String fieldName) {
                 return t -> serviceOfferingSD.put(fieldName, t);
             }
         };
         Utils.getNonEmptyListFromCommaSeparated(serviceOfferingSchema.getAggregationOf(), Utils::uriFromStr).ifPresent(setter.set("gx:aggregationOf"));
-        Utils.getNonEmptyListFromCommaSeparated(
+        termsAndConditionsHelper.getTermsAndConditionsList(
                 serviceOfferingSchema.getTermsAndConditions(),
                 url -> termsAndConditionsHelper.getTermsAndConditions(
                         url,
@@ -78,4 +80,17 @@ public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSche
         Utils.getNonEmptyListFromCommaSeparated(serviceOfferingSchema.getPolicies(), Function.identity()).ifPresent(setter.set("gx:policy"));
         return serviceOfferingSD;
     }
+
+    private static Map<String, Object> createDataAccountExportNode() {
+        Map<String, Object> dataAccountExportNode = new LinkedHashMap<>();
+        dataAccountExportNode.put("gx:requestType", "email");
+        dataAccountExportNode.put("gx:accessType", "digital");
+        dataAccountExportNode.put("gx:formatType", "json");
+        return Collections.unmodifiableMap(dataAccountExportNode);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        contexts = List.of(contextUri);
+    }
 }
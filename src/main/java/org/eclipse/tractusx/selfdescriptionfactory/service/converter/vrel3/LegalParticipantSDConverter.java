@@ -23,6 +23,7 @@ package org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.converter.Converter;
@@ -37,14 +38,15 @@ import java.util.stream.Collectors;
 @Component
 @RequiredArgsConstructor
 @Profile("catena-x-ctx")
-public class LegalParticipantSDConverter implements Converter<LegalParticipantSchema, SDFactory.SelfDescription> {
+public class LegalParticipantSDConverter implements Converter<LegalParticipantSchema, SDFactory.SelfDescription>, InitializingBean {
 
     @Value("${app.verifiableCredentials.schema2210Url}")
     private URI contextUri;
+    private List<URI> contexts;
 
     @Override
     public SDFactory.SelfDescription convert(LegalParticipantSchema legalParticipantSchema) {
-        var legalParticipantSD =  new SDFactory.SelfDescription(List.of(contextUri), legalParticipantSchema.getHolder(), legalParticipantSchema.getIssuer(), legalParticipantSchema.getExternalId(), null);
+        var legalParticipantSD =  new SDFactory.SelfDescription(contexts, legalParticipantSchema.getHolder(), legalParticipantSchema.getIssuer(), legalParticipantSchema.getExternalId(), null);
         legalParticipantSD.put("type", "LegalParticipant");
         legalParticipantSD.put("bpn", legalParticipantSchema.getBpn());
         legalParticipantSD.put(
@@ -61,4 +63,9 @@ public class LegalParticipantSDConverter implements Converter<LegalParticipantSc
         legalParticipantSD.put("legalAddress", Map.of("countryCode", legalParticipantSchema.getLegalAddressCountry()));
         return legalParticipantSD;
     }
+
+    @Override
+    public void afterPropertiesSet() {
+        contexts = List.of(contextUri);
+    }
 }
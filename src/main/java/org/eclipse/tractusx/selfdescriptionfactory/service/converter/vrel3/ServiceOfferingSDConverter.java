@@ -20,72 +20,66 @@
 
 package org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3;
 
-import io.vavr.control.Try;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
 import org.eclipse.tractusx.selfdescriptionfactory.Utils;
-import org.eclipse.tractusx.selfdescriptionfactory.model.v2210.DataAccountExportSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.model.v2210.TermsAndConditionsSchema;
 import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.TermsAndConditionsHelper;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.net.URI;
-import java.net.URL;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
 @Profile("catena-x-ctx")
-public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSchema, SDFactory.SelfDescription> {
+public class ServiceOfferingSDConverter implements Converter<ServiceOfferingSchema, SDFactory.SelfDescription>, InitializingBean {
 
-    @Value("${app.maxRedirect:5}")
-    private int maxRedirect;
+    private static final List<Map<String, Object>> DATA_ACCOUNT_EXPORT = List.of(Map.of(
+            "requestType", "email",
+            "accessType", "digital",
+            "formatType", "json"
+    ));
+
+    private final TermsAndConditionsHelper termsAndConditionsHelper;
 
     @Value("${app.verifiableCredentials.schema2210Url}")
     private URI contextUri;
+    private List<URI> contexts;
 
     @Override
     public SDFactory.SelfDescription convert(ServiceOfferingSchema serviceOfferingSchema) {
         var aggregationOf = Utils.getNonEmptyListFromCommaSeparated(serviceOfferingSchema.getAggregationOf(), Utils::uriFromStr).orElse(null);
-        var termsAndConditions = Utils.getNonEmptyListFromCommaSeparated(serviceOfferingSchema.getTermsAndConditions(), this::getTermsAndConditions).orElse(null);
+        var termsAndConditions = termsAndConditionsHelper.getTermsAndConditionsList(serviceOfferingSchema.getTermsAndConditions(), this::getTermsAndConditions).orElse(null);
         var policy = Utils.getNonEmptyListFromCommaSeparated(serviceOfferingSchema.getPolicies(), Function.identity()).orElse(null);
-        var serviceOfferingSD = new SDFactory.SelfDescription(List.of(contextUri), serviceOfferingSchema.getHolder(), serviceOfferingSchema.getIssuer(), serviceOfferingSchema.getExternalId(), null);
+        var serviceOfferingSD = new SDFactory.SelfDescription(contexts, serviceOfferingSchema.getHolder(), serviceOfferingSchema.getIssuer(), serviceOfferingSchema.getExternalId(), null);
         serviceOfferingSD.put("type", "ServiceOffering");
         serviceOfferingSD.put("bpn", serviceOfferingSchema.getHolder());
         serviceOfferingSD.put("providedBy", serviceOfferingSchema.getProvidedBy());
         serviceOfferingSD.put("aggregationOf", aggregationOf);
         serviceOfferingSD.put("termsAndConditions", termsAndConditions);
         serviceOfferingSD.put("policy", policy);
-        serviceOfferingSD.put("dataAccountExport", List.of(
-                new DataAccountExportSchema()
-                        .requestType(DataAccountExportSchema.RequestTypeEnum.EMAIL)
-                        .accessType(DataAccountExportSchema.AccessTypeEnum.DIGITAL)
-                        .formatType("json")
-                )
-        );
+        serviceOfferingSD.put("dataAccountExport", DATA_ACCOUNT_EXPORT);
         return serviceOfferingSD;
     }
 
     private TermsAndConditionsSchema getTermsAndConditions(String urlStr) {
-        return Try.of(() -> new URL(urlStr))
-                .mapTry(url -> Utils.getConnectionIfRedirected(url, maxRedirect))
-                .flatMap(urlConnection -> Try.withResources(urlConnection::getInputStream).of(DigestUtils::sha256Hex))
-                .map(sha-> new TermsAndConditionsSchema()
-                        .URL(URI.create(urlStr))
-                        .hash(sha))
-                .recoverWith(Utils.mapFailure(err ->
-                                new ResponseStatusException(
-                                        HttpStatus.BAD_REQUEST,
-                                        "Could not retrieve TermsAndConditions from '"+ urlStr +"'",
-                                        err)
-                        )
-                ).get();
+        // getHash rejects a malformed URL with 400 Bad Request before it is parsed here
+        var hash = termsAndConditionsHelper.getHash(urlStr);
+        return new TermsAndConditionsSchema()
+                .URL(URI.create(urlStr))
+                .hash(hash);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        contexts = List.of(contextUri);
     }
 }
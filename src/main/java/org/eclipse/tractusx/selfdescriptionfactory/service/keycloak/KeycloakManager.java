@@ -23,9 +23,13 @@ package org.eclipse.tractusx.selfdescriptionfactory.service.keycloak;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
+import io.vavr.control.Try;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
@@ -37,49 +41,105 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
+/**
+ * Obtains and caches access tokens of the technical users. The expiration of a token is read
+ * once when it is received. Tokens are renewed in background before they get within
+ * {@code REFRESH_GAP} of their expiration, and concurrent renewals for the same technical
+ * user are merged into a single call to Keycloak.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class KeycloakManager {
 
     private static final long REFRESH_GAP = 60L;
     private final TechnicalUsersDetails technicalUsersDetails;
-    private final Map<String, Map<String, Object>> tokenMap = new HashMap<>();
+    private final Map<String, Tokens> tokenMap = new ConcurrentHashMap<>();
+    private final Map<String, Lock> renewalLocks = new ConcurrentHashMap<>();
 
     private final KeycloakClient keycloakClient;
 
     private final ObjectMapper mapper;
 
-    @SneakyThrows
+    private final PipelineMetrics pipelineMetrics;
+
+    private record Tokens(String accessToken, Instant accessTokenExpiration, String refreshToken, Instant refreshTokenExpiration) {
+        boolean expiresWithin(Duration duration) {
+            return expiresWithin(accessTokenExpiration, duration);
+        }
+
+        boolean canBeRefreshed() {
+            return refreshToken != null && !expiresWithin(refreshTokenExpiration, Duration.ofSeconds(REFRESH_GAP));
+        }
+
+        private static boolean expiresWithin(Instant expiration, Duration duration) {
+            return expiration == null || Duration.between(Instant.now(), expiration).compareTo(duration) <= 0;
+        }
+    }
+
     public String getToken(String name) {
-        var kk = tokenMap.get(name);
-        var details = Optional.ofNullable(technicalUsersDetails.getUsersDetails())
-                .map(userDetailMap -> userDetailMap.get(name))
-                .filter(ud -> !(Strings.isNullOrEmpty(ud.serverUrl()) || Strings.isNullOrEmpty(ud.realm()) || Strings.isNullOrEmpty(ud.clientId()) || Strings.isNullOrEmpty(ud.clientSecret())))
-                .orElse(null);
+        return pipelineMetrics.record(Stage.TOKEN, () -> acquireToken(name));
+    }
+
+    private String acquireToken(String name) {
+        var details = getDetails(name);
         if (Objects.isNull(details))
             return null;
-        if (!Objects.isNull(kk)) {
-            var token = kk.get("access_token").toString();
-            var jwt = mapper.readValue(Base64.getDecoder().decode(token.split("\\.")[1]), new TypeReference<Map<String, Object>>(){});
-            var expirationInstant = Instant.ofEpochSecond((Integer) jwt.get("exp"));
-            if (Duration.between(Instant.now(), expirationInstant).compareTo(Duration.ofSeconds(REFRESH_GAP)) > 0) {
-                //token still valid
-                return token;
-            } else {
-                //try to obtain access token using refresh token
-                var refreshToken = kk.get("refresh_token");
-                if (!Objects.isNull(refreshToken)) {
-                    var refreshedToken = refresh(refreshToken.toString(), name, details);
-                    if (refreshedToken != null) return refreshedToken;
-                }
+        var tokens = tokenMap.get(name);
+        if (tokens != null && !tokens.expiresWithin(Duration.ofSeconds(REFRESH_GAP))) {
+            //token still valid
+            return tokens.accessToken();
+        }
+        return renew(name, details, t -> t.expiresWithin(Duration.ofSeconds(REFRESH_GAP))).accessToken();
+    }
+
+    /**
+     * Renews the tokens which would otherwise have to be renewed on the request path soon.
+     */
+    @Scheduled(fixedDelayString = "${app.tokenRenewalCheckInterval:PT15S}")
+    public void renewExpiringTokens() {
+        var renewalGap = Duration.ofSeconds(2 * REFRESH_GAP);
+        tokenMap.forEach((name, tokens) -> {
+            var details = getDetails(name);
+            if (details != null && tokens.expiresWithin(renewalGap)) {
+                Try.run(() -> renew(name, details, t -> t.expiresWithin(renewalGap)))
+                        .onFailure(err -> log.warn("Could not renew token for '{}' in background: {}", name, err.getMessage()));
+            }
+        });
+    }
+
+    private Tokens renew(String name, TechnicalUsersDetails.UserDetail details, Predicate<Tokens> needsRenewal) {
+        var lock = renewalLocks.computeIfAbsent(name, n -> new ReentrantLock());
+        lock.lock();
+        try {
+            var kk = tokenMap.get(name);
+            if (kk != null && !needsRenewal.test(kk)) {
+                // renewed by a concurrent caller while we were waiting
+                return kk;
             }
+            //try to obtain access token using refresh token
+            var renewed = Optional.ofNullable(kk)
+                    .filter(Tokens::canBeRefreshed)
+                    .flatMap(t -> refresh(t.refreshToken(), details))
+                    // Trying to get token using supplied credentials
+                    .orElseGet(() -> toTokens(keycloakClient.getTokens(URI.create(details.serverUrl()), details.realm(), getOauthTokenParameters(details))));
+            tokenMap.put(name, renewed);
+            return renewed;
+        } finally {
+            lock.unlock();
         }
-        // Trying to get token using supplied credentials
-        var param = getOauthTokenParameters(details);
-        kk = keycloakClient.getTokens(URI.create(details.serverUrl()), details.realm(), param);
-        tokenMap.put(name, kk);
-        return kk.get("access_token").toString();
+    }
+
+    private TechnicalUsersDetails.UserDetail getDetails(String name) {
+        return Optional.ofNullable(technicalUsersDetails.getUsersDetails())
+                .map(userDetailMap -> userDetailMap.get(name))
+                .filter(ud -> !(Strings.isNullOrEmpty(ud.serverUrl()) || Strings.isNullOrEmpty(ud.realm()) || Strings.isNullOrEmpty(ud.clientId()) || Strings.isNullOrEmpty(ud.clientSecret())))
+                .orElse(null);
     }
 
     @Nonnull
@@ -98,12 +158,8 @@ public class KeycloakManager {
         return param;
     }
 
-    private String refresh(String refreshToken, String name, TechnicalUsersDetails.UserDetail details) {
-        try {
-            var token = mapper.readValue(Base64.getDecoder().decode(refreshToken.split("\\.")[1]), new TypeReference<Map<String, Object>>() {});
-            var expirationInstant = Instant.ofEpochSecond((Integer) token.get("exp"));
-            if (Duration.between(Instant.now(), expirationInstant).compareTo(Duration.ofSeconds(REFRESH_GAP)) > 0) {
-                var kk = keycloakClient.getTokens(
+    private Optional<Tokens> refresh(String refreshToken, TechnicalUsersDetails.UserDetail details) {
+        return Try.of(() -> keycloakClient.getTokens(
                         URI.create(details.serverUrl()), details.realm(), Map.of(
                                 "grant_type", "refresh_token",
                                 "client_id", details.clientId(),
@@ -111,12 +167,33 @@ public class KeycloakManager {
                                 "scope", "open_id",
                                 "refresh_token", refreshToken
                         )
-                );
-                tokenMap.put(name, kk);
-                return kk.get("access_token").toString();
-            } else return null;
-        } catch (Exception e) {
-            return null;
-        }
+                )).map(this::toTokens)
+                .toJavaOptional();
+    }
+
+    private Tokens toTokens(Map<String, Object> kk) {
+        var receivedAt = Instant.now();
+        var accessToken = kk.get("access_token").toString();
+        var refreshToken = Optional.ofNullable(kk.get("refresh_token")).map(Object::toString).orElse(null);
+        return new Tokens(
+                accessToken,
+                getExpiration(accessToken).or(() -> getExpiration(kk, "expires_in", receivedAt)).orElse(null),
+                refreshToken,
+                Optional.ofNullable(refreshToken).flatMap(this::getExpiration).or(() -> getExpiration(kk, "refresh_expires_in", receivedAt)).orElse(null)
+        );
+    }
+
+    private Optional<Instant> getExpiration(String token) {
+        return Try.of(() -> mapper.readValue(Base64.getUrlDecoder().decode(token.split("\\.")[1]), new TypeReference<Map<String, Object>>(){}))
+                .map(jwt -> jwt.get("exp"))
+                .filter(Number.class::isInstance)
+                .map(exp -> Instant.ofEpochSecond(((Number) exp).longValue()))
+                .toJavaOptional();
+    }
+
+    private static Optional<Instant> getExpiration(Map<String, Object> kk, String expiresInKey, Instant receivedAt) {
+        return Optional.ofNullable(kk.get(expiresInKey))
+                .filter(Number.class::isInstance)
+                .map(expiresIn -> receivedAt.plusSeconds(((Number) expiresIn).longValue()));
     }
 }
@@ -0,0 +1,164 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of creating a Self-Description. All stages are recorded by the
+ * {@code sdfactory.pipeline} timer tagged with the stage, the type of the Self-Description
+ * being processed, the active profiles and the outcome. The type is bound to the thread
+ * running the pipeline, so the shared services called from it (Custodian Wallet, Keycloak,
+ * Terms and Conditions) are attributed to the Self-Description they work for. A pipeline
+ * may be given a {@link StageListener} which is told about every stage recorded for it. Services
+ * handing work over to threads of their own run it with a {@link #propagating(Executor)} executor,
+ * so the stages recorded there are attributed to the same pipeline.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics implements InitializingBean {
+
+    public static final String TIMER_NAME = "sdfactory.pipeline";
+    private static final String NO_TYPE = "none";
+    private static final ThreadLocal<Pipeline> currentPipeline = new ThreadLocal<>();
+
+    public enum Stage {
+        CONVERSION("conversion"),
+        TERMS_AND_CONDITIONS("terms-and-conditions"),
+        WALLET("wallet"),
+        TOKEN("token"),
+        VC_BUILD("vc-build"),
+        OUTBOX("outbox"),
+        CLEARING_HOUSE("clearing-house");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    @FunctionalInterface
+    public interface StageListener {
+        StageListener NONE = (stage, duration, success) -> {};
+
+        void stageRecorded(Stage stage, Duration duration, boolean success);
+    }
+
+    private record Pipeline(String type, StageListener listener) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private String profile;
+
+    /**
+     * Runs the pipeline for a Self-Description of the given type, stages recorded by
+     * the current thread meanwhile are tagged with this type.
+     */
+    public void runPipeline(String type, Runnable pipeline) {
+        runPipeline(type, StageListener.NONE, pipeline);
+    }
+
+    public void runPipeline(String type, StageListener listener, Runnable pipeline) {
+        runPipeline(type, listener, () -> {
+            pipeline.run();
+            return null;
+        });
+    }
+
+    public <T> T runPipeline(String type, StageListener listener, Supplier<T> pipeline) {
+        var previous = currentPipeline.get();
+        currentPipeline.set(new Pipeline(Objects.requireNonNullElse(type, NO_TYPE), listener));
+        try {
+            return pipeline.get();
+        } finally {
+            if (previous == null) {
+                currentPipeline.remove();
+            } else {
+                currentPipeline.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Executor running every task in the pipeline of the thread which submitted it.
+     */
+    public Executor propagating(Executor executor) {
+        return task -> {
+            var pipeline = currentPipeline.get();
+            executor.execute(pipeline == null ? task : () -> runPipeline(pipeline.type(), pipeline.listener(), task));
+        };
+    }
+
+    public <T> T record(Stage stage, Supplier<T> work) {
+        var sample = Timer.start(meterRegistry);
+        var success = false;
+        try {
+            var result = work.get();
+            success = true;
+            return result;
+        } finally {
+            var duration = Duration.ofNanos(sample.stop(timer(stage, success ? "success" : "failure")));
+            var pipeline = currentPipeline.get();
+            if (pipeline != null) {
+                pipeline.listener().stageRecorded(stage, duration, success);
+            }
+        }
+    }
+
+    public void record(Stage stage, Runnable work) {
+        record(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private Timer timer(Stage stage, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Duration of a stage of Self-Description creation")
+                .tag("stage", stage.tag)
+                .tag("type", currentPipeline.get() == null ? NO_TYPE : currentPipeline.get().type())
+                .tag("profile", profile)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var activeProfiles = environment.getActiveProfiles();
+        profile = activeProfiles.length == 0 ? "default" : String.join(",", activeProfiles);
+    }
+}
@@ -0,0 +1,57 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the circuit breaker and bulkhead state of every remote service called so far. An open
+ * circuit does not make the Factory unhealthy, since restarting it would not help the remote
+ * service to recover, so the state is exported as details only.
+ */
+@Component("feignClients")
+@RequiredArgsConstructor
+public class FeignClientsHealthIndicator implements HealthIndicator {
+
+    private final FeignResilience feignResilience;
+
+    @Override
+    public Health health() {
+        var builder = Health.up();
+        feignResilience.getCircuitBreakerRegistry().getAllCircuitBreakers().forEach(circuitBreaker -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("state", circuitBreaker.getState());
+            details.put("failureRate", circuitBreaker.getMetrics().getFailureRate());
+            details.put("bufferedCalls", circuitBreaker.getMetrics().getNumberOfBufferedCalls());
+            details.put("notPermittedCalls", circuitBreaker.getMetrics().getNumberOfNotPermittedCalls());
+            feignResilience.getBulkheadRegistry().find(circuitBreaker.getName())
+                    .ifPresent(bulkhead -> details.put("availableConcurrentCalls", bulkhead.getMetrics().getAvailableConcurrentCalls()));
+            builder.withDetail(circuitBreaker.getName(), details);
+        });
+        return builder.build();
+    }
+}
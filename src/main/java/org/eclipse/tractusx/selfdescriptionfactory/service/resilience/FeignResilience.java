@@ -0,0 +1,164 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.resilience;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.config.ResilienceProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Isolates the remote services from each other. Every Feign client gets its own bulkhead limiting
+ * the concurrent calls and its own circuit breaker, which rejects calls while the service keeps
+ * failing and lets a few probing calls through after {@code waitDurationInOpenState}. Connection
+ * failures and server errors count as failures. Rejected calls fail fast with
+ * {@code 503 Service Unavailable}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeignResilience implements InitializingBean {
+
+    public static final String KEYCLOAK = "keycloak";
+
+    private final ResilienceProperties resilienceProperties;
+    private final TechnicalUsersDetails technicalUsersDetails;
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    @Getter
+    private BulkheadRegistry bulkheadRegistry;
+
+    /**
+     * Isolates every client by the name of its Feign target.
+     */
+    public Capability capability() {
+        return capability(request -> request.requestTemplate().feignTarget().name());
+    }
+
+    /**
+     * Isolates all calls of a client under the given name.
+     */
+    public Capability capability(String name) {
+        return capability(request -> name);
+    }
+
+    private Capability capability(Function<Request, String> nameOf) {
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return (request, options) -> execute(nameOf.apply(request), client, request, options);
+            }
+        };
+    }
+
+    private Response execute(String name, Client client, Request request, Request.Options options) throws IOException {
+        var bulkhead = bulkheadRegistry.bulkhead(name, () -> getBulkheadConfig(name));
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent calls to " + name, e);
+        }
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (CallNotPermittedException e) {
+            bulkhead.onComplete();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, name + " is unavailable, circuit breaker is " + circuitBreaker.getState(), e);
+        }
+        var start = System.nanoTime();
+        try {
+            var response = client.execute(request, getOptions(name, options));
+            var duration = System.nanoTime() - start;
+            if (response.status() >= 500) {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new IOException(name + " responded with status " + response.status()));
+            } else {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private Request.Options getOptions(String name, Request.Options options) {
+        var userDetail = getUserDetail(name);
+        var connectTimeout = userDetail.map(TechnicalUsersDetails.UserDetail::connectTimeout).orElse(resilienceProperties.getConnectTimeout());
+        var readTimeout = userDetail.map(TechnicalUsersDetails.UserDetail::readTimeout).orElse(resilienceProperties.getReadTimeout());
+        return new Request.Options(connectTimeout, readTimeout, options.isFollowRedirects());
+    }
+
+    private BulkheadConfig getBulkheadConfig(String name) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(getUserDetail(name).map(TechnicalUsersDetails.UserDetail::maxConcurrentCalls).orElse(resilienceProperties.getMaxConcurrentCalls()))
+                .maxWaitDuration(resilienceProperties.getMaxWaitForCall())
+                .build();
+    }
+
+    private Optional<TechnicalUsersDetails.UserDetail> getUserDetail(String name) {
+        return Optional.ofNullable(technicalUsersDetails.getUsersDetails())
+                .map(userDetails -> userDetails.get(name));
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var circuitBreakerProperties = resilienceProperties.getCircuitBreaker();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreakerProperties.getFailureRateThreshold())
+                .slidingWindowSize(circuitBreakerProperties.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreakerProperties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreakerProperties.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreakerProperties.getPermittedNumberOfCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> event.getAddedEntry().getEventPublisher()
+                .onStateTransition(transition -> log.warn("Circuit breaker {}: {}", transition.getCircuitBreakerName(), transition.getStateTransition())));
+        bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+}
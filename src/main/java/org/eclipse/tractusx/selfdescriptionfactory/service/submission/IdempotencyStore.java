@@ -0,0 +1,184 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.submission;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.tractusx.selfdescriptionfactory.Utils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.IdempotencyProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Remembers accepted submissions by externalId and a hash of their content. A submission
+ * repeated with the same content within the configured window is recognized as a duplicate,
+ * so client retries do not convert, sign and send the same Self-Description again. A
+ * submission with new content for a known externalId replaces the remembered one. If a file
+ * is configured, remembered submissions are saved periodically and on shutdown and are
+ * loaded again on startup.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore implements InitializingBean, DisposableBean {
+
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private ObjectMapper fileMapper;
+    private Cache<String, Submission> submissions;
+
+    public record Submission(String externalId, String contentHash, Instant acceptedAt) {}
+
+    /**
+     * Claims the submission of a Self-Description request.
+     *
+     * @return the claimed submission or empty if the same content was already accepted within the window
+     */
+    public Optional<Submission> claim(Object request) {
+        var externalId = Utils.getExternalId(request);
+        if (!idempotencyProperties.isEnabled() || Objects.isNull(externalId)) {
+            return Optional.of(new Submission(externalId, null, Instant.now()));
+        }
+        var submission = new Submission(externalId, hash(request), Instant.now());
+        var current = submissions.asMap().compute(externalId, (key, previous) ->
+                Objects.nonNull(previous) && previous.contentHash().equals(submission.contentHash()) ? previous : submission);
+        if (current != submission) {
+            log.debug("Duplicate submission for externalId {} accepted at {}", externalId, current.acceptedAt());
+            return Optional.empty();
+        }
+        return Optional.of(submission);
+    }
+
+    /**
+     * Forgets a claimed submission which could not be processed, so it is processed when it is repeated.
+     */
+    public void release(Submission submission) {
+        if (Objects.nonNull(submission.contentHash())) {
+            submissions.asMap().remove(submission.externalId(), submission);
+        }
+    }
+
+    @SneakyThrows
+    private String hash(Object request) {
+        return DigestUtils.sha256Hex(objectMapper.writeValueAsBytes(request));
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.persistInterval:PT1M}")
+    public void persist() {
+        var file = idempotencyProperties.getFile();
+        if (Objects.isNull(file) || Objects.isNull(submissions)) {
+            return;
+        }
+        var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Try.run(() -> {
+            fileMapper.writeValue(tmp.toFile(), List.copyOf(submissions.asMap().values()));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }).onFailure(err -> log.warn("Could not save accepted submissions to {}: {}", file, err.getMessage()));
+    }
+
+    private void load() {
+        var file = idempotencyProperties.getFile();
+        if (Objects.isNull(file) || !Files.exists(file)) {
+            return;
+        }
+        var windowStart = Instant.now().minus(idempotencyProperties.getWindow());
+        Try.of(() -> fileMapper.readValue(file.toFile(), new TypeReference<List<Submission>>() {}))
+                .onSuccess(loaded -> loaded.stream()
+                        .filter(submission -> submission.acceptedAt().isAfter(windowStart))
+                        .forEach(submission -> submissions.put(submission.externalId(), submission)))
+                .onSuccess(loaded -> log.info("Loaded {} accepted submissions from {}", submissions.estimatedSize(), file))
+                .onFailure(err -> log.warn("Could not load accepted submissions from {}: {}", file, err.getMessage()));
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        fileMapper = objectMapper.copy()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        submissions = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getMaxSize())
+                .expireAfter(new WindowExpiry(idempotencyProperties.getWindow()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, submissions, "submissions");
+        var file = idempotencyProperties.getFile();
+        if (Objects.nonNull(file) && Objects.nonNull(file.toAbsolutePath().getParent())) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        load();
+    }
+
+    @Override
+    public void destroy() {
+        persist();
+    }
+
+    /**
+     * Submissions expire when the window since they were accepted is over, also if they were loaded from file.
+     */
+    @RequiredArgsConstructor
+    private static class WindowExpiry implements Expiry<String, Submission> {
+        private final Duration window;
+
+        private long remaining(Submission submission) {
+            var remaining = Duration.between(Instant.now(), submission.acceptedAt().plus(window));
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Submission submission, long currentTime) {
+            return remaining(submission);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Submission submission, long currentTime, long currentDuration) {
+            return remaining(submission);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Submission submission, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.submission;
+
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs accepted submissions on a bounded worker pool. When both the pool and its queue are
+ * exhausted new submissions are rejected, so the caller is told to come back later instead
+ * of the service piling up work it cannot finish. If virtual threads are enabled, every
+ * submission runs on its own virtual thread and at most {@code maxPoolSize + queueCapacity}
+ * submissions are in progress at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubmissionDispatcher implements InitializingBean, DisposableBean {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final SubmissionProperties submissionProperties;
+    private AsyncTaskExecutor executor;
+
+    public void dispatch(String externalId, Runnable task) {
+        Try.run(() -> executor.execute(() -> Try.run(task)
+                        .onFailure(err -> log.error("Could not process Self-Description with externalId '{}'", externalId, err))))
+                .getOrElseThrow(SubmissionDispatcher::queueIsFull);
+    }
+
+    /**
+     * Same as {@link #dispatch(String, Runnable)} but the outcome of the task is reported through
+     * the returned future. A rejected task results in an already failed future.
+     */
+    public CompletableFuture<Void> submit(String externalId, Runnable task) {
+        return Try.of(() -> executor.submitCompletable(task))
+                .map(future -> future.whenComplete((ignored, err) -> {
+                    if (err != null) {
+                        log.error("Could not process Self-Description with externalId '{}'", externalId, err);
+                    }
+                }))
+                .getOrElseGet(err -> CompletableFuture.failedFuture(queueIsFull(err)));
+    }
+
+    private static ResponseStatusException queueIsFull(Throwable err) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Submission queue is full, please retry later", err);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (virtualThreads) {
+            var virtualExecutor = new BoundedVirtualThreadExecutor(submissionProperties.getMaxPoolSize() + submissionProperties.getQueueCapacity());
+            virtualExecutor.setTaskTerminationTimeout(submissionProperties.getShutdownTimeout().toMillis());
+            executor = virtualExecutor;
+        } else {
+            var poolExecutor = new ThreadPoolTaskExecutor();
+            poolExecutor.setThreadNamePrefix("sd-submission-");
+            poolExecutor.setCorePoolSize(submissionProperties.getCorePoolSize());
+            poolExecutor.setMaxPoolSize(submissionProperties.getMaxPoolSize());
+            poolExecutor.setQueueCapacity(submissionProperties.getQueueCapacity());
+            poolExecutor.setWaitForTasksToCompleteOnShutdown(true);
+            poolExecutor.setAwaitTerminationMillis(submissionProperties.getShutdownTimeout().toMillis());
+            poolExecutor.initialize();
+            executor = poolExecutor;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        switch (executor) {
+            case ThreadPoolTaskExecutor poolExecutor -> poolExecutor.shutdown();
+            case SimpleAsyncTaskExecutor virtualExecutor -> virtualExecutor.close();
+            default -> { }
+        }
+    }
+
+    /**
+     * Starts a virtual thread per task and rejects tasks instead of blocking the caller once
+     * the limit of running tasks is reached.
+     */
+    private static final class BoundedVirtualThreadExecutor extends SimpleAsyncTaskExecutor {
+        private final transient Semaphore permits;
+
+        private BoundedVirtualThreadExecutor(int limit) {
+            super("sd-submission-");
+            setVirtualThreads(true);
+            permits = new Semaphore(limit);
+        }
+
+        @Override
+        protected void doExecute(@NonNull Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException("Too many submissions in progress");
+            }
+            try {
+                super.doExecute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.submission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.StageListener;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the processing status of submitted Self-Descriptions by externalId, so clients can
+ * query the outcome of a submission. The status is kept in memory for a limited number of
+ * submissions and for a limited time after its last change.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubmissionTracker implements InitializingBean {
+
+    public enum State {
+        QUEUED, CONVERTED, SENT, FAILED
+    }
+
+    public record StageTiming(Duration duration, int count) {}
+
+    public record Status(String externalId, State state, Instant acceptedAt, Instant updatedAt,
+                         String verifiableCredentialId, String message, Map<Stage, StageTiming> stages) {}
+
+    private final SubmissionProperties submissionProperties;
+    private Cache<String, Status> statuses;
+
+    public Optional<Status> get(String externalId) {
+        return Optional.ofNullable(statuses.getIfPresent(externalId));
+    }
+
+    public void queued(String externalId) {
+        if (Objects.nonNull(externalId)) {
+            var now = Instant.now();
+            statuses.put(externalId, new Status(externalId, State.QUEUED, now, now, null, null, Map.of()));
+        }
+    }
+
+    /**
+     * Listener adding the stages recorded for the Self-Description to its status.
+     */
+    public StageListener stageListener(String externalId) {
+        return (stage, duration, success) -> update(externalId, status -> {
+            var stages = new EnumMap<Stage, StageTiming>(Stage.class);
+            stages.putAll(status.stages());
+            stages.merge(stage, new StageTiming(duration, 1),
+                    (previous, timing) -> new StageTiming(previous.duration().plus(timing.duration()), previous.count() + 1));
+            return new Status(status.externalId(), status.state(), status.acceptedAt(), status.updatedAt(),
+                    status.verifiableCredentialId(), status.message(), Map.copyOf(stages));
+        });
+    }
+
+    public void converted(String externalId, String verifiableCredentialId) {
+        update(externalId, status -> new Status(status.externalId(), State.CONVERTED, status.acceptedAt(), Instant.now(),
+                verifiableCredentialId, status.message(), status.stages()));
+    }
+
+    public void sent(String externalId) {
+        update(externalId, status -> new Status(status.externalId(), State.SENT, status.acceptedAt(), Instant.now(),
+                status.verifiableCredentialId(), null, status.stages()));
+    }
+
+    public void failed(String externalId, String message) {
+        update(externalId, status -> new Status(status.externalId(), State.FAILED, status.acceptedAt(), Instant.now(),
+                status.verifiableCredentialId(), message, status.stages()));
+    }
+
+    /**
+     * Records a failed delivery attempt which will be retried, the state is not changed.
+     */
+    public void deliveryFailed(String externalId, String message) {
+        update(externalId, status -> new Status(status.externalId(), status.state(), status.acceptedAt(), Instant.now(),
+                status.verifiableCredentialId(), message, status.stages()));
+    }
+
+    private void update(String externalId, UnaryOperator<Status> change) {
+        if (Objects.nonNull(externalId)) {
+            statuses.asMap().computeIfPresent(externalId, (key, status) -> change.apply(status));
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        statuses = Caffeine.newBuilder()
+                .maximumSize(submissionProperties.getStatus().getMaxSize())
+                .expireAfterWrite(submissionProperties.getStatus().getRetention())
+                .build();
+    }
+}
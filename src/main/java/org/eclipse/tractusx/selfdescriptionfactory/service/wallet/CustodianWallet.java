@@ -21,32 +21,78 @@
 package org.eclipse.tractusx.selfdescriptionfactory.service.wallet;
 
 import com.danubetech.verifiablecredentials.VerifiableCredential;
-import io.vavr.Function1;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.Utils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.CustodianWalletProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.annotation.RequestScope;
 
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Access to the Custodian Wallet. Wallet data is cached application-wide for
+ * {@code app.custodian-wallet.cache.expire-after}; concurrent requests for a wallet which is
+ * not cached yet wait for a single call to the Custodian. The call is made on a virtual thread
+ * of its own, so no thread waits for the Custodian inside the cache. Cached entries can be
+ * evicted before they expire with the {@code custodianwallet} actuator endpoint.
+ */
 @Slf4j
 @Service
-@RequestScope
-public class CustodianWallet {
+@RequiredArgsConstructor
+public class CustodianWallet implements InitializingBean, DisposableBean {
 
     private final CustodianClient custodianClient;
-    private Function1<String, Map<String, Object>> walletInfoFn;
-
-    public CustodianWallet(CustodianClient custodianClient) {
-        this.custodianClient = custodianClient;
-        walletInfoFn = ((Function1<String, Map<String, Object>>)custodianClient::getWalletData).memoized();
-    }
+    private final CustodianWalletProperties custodianWalletProperties;
+    private final MeterRegistry meterRegistry;
+    private final PipelineMetrics pipelineMetrics;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private AsyncLoadingCache<String, Map<String, Object>> walletData;
 
     public VerifiableCredential getSignedVC(VerifiableCredential objToSign) {
         return custodianClient.getSignedVC(objToSign);
     }
 
     public Map<String, Object> getWalletData(String bpnNumber) {
-        return walletInfoFn.apply(bpnNumber);
+        return pipelineMetrics.record(Stage.WALLET, () -> Try.of(() -> walletData.get(bpnNumber).join())
+                .recoverWith(Utils.mapFailure(err -> err instanceof CompletionException && err.getCause() != null ? err.getCause() : err))
+                .get());
     }
 
-}
\ No newline at end of file
+    public void invalidateWalletData(String bpnNumber) {
+        log.debug("Invalidating cached wallet data for {}", bpnNumber);
+        walletData.synchronous().invalidate(bpnNumber);
+    }
+
+    public void invalidateAllWalletData() {
+        log.debug("Invalidating all cached wallet data");
+        walletData.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        walletData = Caffeine.newBuilder()
+                .maximumSize(custodianWalletProperties.getCache().getMaxSize())
+                .expireAfterWrite(custodianWalletProperties.getCache().getExpireAfter())
+                .recordStats()
+                .executor(pipelineMetrics.propagating(loadExecutor))
+                .buildAsync(custodianClient::getWalletData);
+        CaffeineCacheMetrics.monitor(meterRegistry, walletData, "custodianWallet");
+    }
+
+    @Override
+    public void destroy() {
+        loadExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.wallet;
+
+import lombok.RequiredArgsConstructor;
+import org.eclipse.tractusx.selfdescriptionfactory.service.AuthChecker;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Evicts cached wallet data, e.g. after a wallet was changed in the Custodian:
+ * {@code DELETE /actuator/custodianwallet/{bpn}} evicts a single wallet and
+ * {@code DELETE /actuator/custodianwallet} evicts all of them. The caller needs
+ * the role which is allowed to create Self-Descriptions.
+ */
+@Component
+@Endpoint(id = "custodianwallet")
+@RequiredArgsConstructor
+public class CustodianWalletEndpoint implements InitializingBean {
+
+    private final CustodianWallet custodianWallet;
+    private final AuthChecker authChecker;
+    private final Environment environment;
+    private Function<Runnable, Void> authorizedFn;
+
+    @DeleteOperation
+    public void evict(@Selector String bpn) {
+        authorizedFn.apply(() -> custodianWallet.invalidateWalletData(bpn));
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        authorizedFn.apply(custodianWallet::invalidateAllWalletData);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Function<Runnable, Void> runFn = action -> {
+            action.run();
+            return null;
+        };
+        authorizedFn = Arrays.asList(environment.getActiveProfiles()).contains("test")
+                ? runFn
+                : authChecker.getAuthorizedFn(runFn);
+    }
+}
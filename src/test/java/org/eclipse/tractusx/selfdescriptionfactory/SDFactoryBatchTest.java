@@ -0,0 +1,198 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionDispatcher;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SDFactoryBatchTest {
+
+    private static final String BATCH_PATH = "/api/rel3/selfdescription/batch";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SubmissionProperties submissionProperties;
+    @MockBean
+    private CustodianWallet custodianWallet;
+    @SpyBean
+    private SubmissionDispatcher submissionDispatcher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SubmissionProperties.Mode mode;
+    private int maxBatchSize;
+
+    @BeforeEach
+    void setUp() {
+        mode = submissionProperties.getMode();
+        maxBatchSize = submissionProperties.getMaxBatchSize();
+        when(custodianWallet.getWalletData(anyString()))
+                .thenAnswer(invocation -> Map.of("did", "did:web:example.org:" + invocation.getArgument(0), "name", "Company"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        submissionProperties.setMode(mode);
+        submissionProperties.setMaxBatchSize(maxBatchSize);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SubmissionProperties.Mode.class)
+    void invalidItemsFailOnTheirOwnAndTheOrderIsKept(SubmissionProperties.Mode mode) throws Exception {
+        submissionProperties.setMode(mode);
+        var first = legalParticipant();
+        var invalid = legalParticipant();
+        invalid.remove("bpn");
+        var last = legalParticipant();
+
+        postBatch(List.of(first, invalid, last))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].externalId").value(first.get("externalId")))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].externalId").value(invalid.get("externalId")))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].message").value(containsString("bpn")))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].externalId").value(last.get("externalId")))
+                .andExpect(jsonPath("$[2].status").value("ACCEPTED"));
+    }
+
+    @Test
+    void batchLargerThanMaxBatchSizeIsRejected() throws Exception {
+        submissionProperties.setMaxBatchSize(2);
+
+        postBatch(List.of(legalParticipant(), legalParticipant(), legalParticipant()))
+                .andExpect(status().isBadRequest());
+
+        verify(submissionDispatcher, times(0)).submit(any(), any());
+        verify(submissionDispatcher, times(0)).dispatch(any(), any());
+    }
+
+    @Test
+    void rejectedDispatchReleasesTheClaimInSyncMode() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.SYNC);
+        var item = legalParticipant();
+        doReturn(CompletableFuture.failedFuture(queueIsFull())).when(submissionDispatcher).submit(any(), any());
+
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("FAILED"))
+                .andExpect(jsonPath("$[0].message").value("Submission queue is full"));
+
+        reset(submissionDispatcher);
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"));
+        verify(submissionDispatcher).submit(any(), any());
+    }
+
+    @Test
+    void rejectedDispatchReleasesTheClaimInAsyncMode() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.ASYNC);
+        var item = legalParticipant();
+        doThrow(queueIsFull()).when(submissionDispatcher).dispatch(any(), any());
+
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("FAILED"))
+                .andExpect(jsonPath("$[0].message").value("Submission queue is full"));
+
+        reset(submissionDispatcher);
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"));
+        verify(submissionDispatcher).dispatch(any(), any());
+    }
+
+    @Test
+    void repeatedItemIsNotProcessedAgain() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.SYNC);
+        var item = legalParticipant();
+
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"));
+        postBatch(List.of(item))
+                .andExpect(jsonPath("$[0].status").value("ACCEPTED"));
+
+        verify(submissionDispatcher).submit(any(), any());
+    }
+
+    private ResultActions postBatch(List<Map<String, Object>> batch) throws Exception {
+        return mockMvc.perform(post(BATCH_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(batch)));
+    }
+
+    private static ResponseStatusException queueIsFull() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Submission queue is full");
+    }
+
+    static Map<String, Object> legalParticipant() {
+        var request = new LinkedHashMap<String, Object>();
+        request.put("externalId", "test-" + UUID.randomUUID());
+        request.put("type", "LegalParticipant");
+        request.put("holder", "BPNL000000000001");
+        request.put("issuer", "CAXSDUMMYCATENAZZ");
+        request.put("registrationNumber", List.of(Map.of("type", "taxID", "value", "o12345678")));
+        request.put("headquarterAddress.country", "DE");
+        request.put("legalAddress.country", "DE");
+        request.put("bpn", "BPNL000000000001");
+        return request;
+    }
+}
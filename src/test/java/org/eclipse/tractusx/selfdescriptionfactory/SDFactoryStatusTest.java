@@ -0,0 +1,183 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionDispatcher;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.submission.status.retention=PT2S")
+@AutoConfigureMockMvc
+class SDFactoryStatusTest {
+
+    private static final String SUBMIT_PATH = "/api/rel3/selfdescription";
+    private static final String STATUS_PATH = "/api/rel3/selfdescription/status/";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private SubmissionProperties submissionProperties;
+    @MockBean
+    private CustodianWallet custodianWallet;
+    @SpyBean
+    private SubmissionDispatcher submissionDispatcher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SubmissionProperties.Mode mode;
+
+    @BeforeEach
+    void setUp() {
+        mode = submissionProperties.getMode();
+        when(custodianWallet.getWalletData(anyString()))
+                .thenAnswer(invocation -> Map.of("did", "did:web:example.org:" + invocation.getArgument(0), "name", "Company"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        submissionProperties.setMode(mode);
+    }
+
+    @Test
+    void acceptedSubmissionPointsToItsStatus() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.SYNC);
+        var request = SDFactoryBatchTest.legalParticipant();
+
+        submit(request)
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, endsWith(STATUS_PATH + request.get("externalId"))));
+    }
+
+    @Test
+    void sentSubmissionReportsItsStages() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.SYNC);
+        var request = SDFactoryBatchTest.legalParticipant();
+        submit(request).andExpect(status().isAccepted());
+
+        getStatus(request.get("externalId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.externalId").value(request.get("externalId")))
+                .andExpect(jsonPath("$.state").value("SENT"))
+                .andExpect(jsonPath("$.verifiableCredentialId").value(startsWith("http")))
+                .andExpect(jsonPath("$.stages[*].stage").value(containsInAnyOrder("conversion", "vc-build")))
+                .andExpect(jsonPath("$.stages[*].count").value(everyItem(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.stages[*].durationMillis").value(everyItem(greaterThanOrEqualTo(0))));
+    }
+
+    @Test
+    void queuedSubmissionIsSentByTheWorker() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.ASYNC);
+        List<Runnable> queued = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> queued.add(invocation.getArgument(1))).when(submissionDispatcher).dispatch(any(), any());
+        var request = SDFactoryBatchTest.legalParticipant();
+        submit(request).andExpect(status().isAccepted());
+
+        getStatus(request.get("externalId"))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andExpect(jsonPath("$.stages").isEmpty());
+
+        queued.forEach(Runnable::run);
+
+        getStatus(request.get("externalId"))
+                .andExpect(jsonPath("$.state").value("SENT"))
+                .andExpect(jsonPath("$.stages[*].stage").value(containsInAnyOrder("conversion", "vc-build")));
+    }
+
+    @Test
+    void failedSubmissionReportsTheReason() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.ASYNC);
+        List<Runnable> queued = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> queued.add(invocation.getArgument(1))).when(submissionDispatcher).dispatch(any(), any());
+        when(custodianWallet.getWalletData(anyString()))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Custodian unavailable"));
+        var request = SDFactoryBatchTest.legalParticipant();
+        submit(request).andExpect(status().isAccepted());
+
+        assertThatThrownBy(() -> queued.forEach(Runnable::run)).isInstanceOf(RuntimeException.class);
+
+        getStatus(request.get("externalId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("FAILED"))
+                .andExpect(jsonPath("$.message").value("Custodian unavailable"))
+                .andExpect(jsonPath("$.verifiableCredentialId").doesNotExist());
+    }
+
+    @Test
+    void statusIsForgottenAfterRetention() throws Exception {
+        submissionProperties.setMode(SubmissionProperties.Mode.SYNC);
+        var request = SDFactoryBatchTest.legalParticipant();
+        submit(request).andExpect(status().isAccepted());
+        getStatus(request.get("externalId")).andExpect(status().isOk());
+
+        Thread.sleep(submissionProperties.getStatus().getRetention().toMillis() + 500);
+
+        getStatus(request.get("externalId")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void unknownSubmissionIsNotFound() throws Exception {
+        getStatus("unknown-externalId").andExpect(status().isNotFound());
+    }
+
+    private ResultActions submit(Map<String, Object> request) throws Exception {
+        return mockMvc.perform(post(SUBMIT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(request)));
+    }
+
+    private ResultActions getStatus(Object externalId) throws Exception {
+        return mockMvc.perform(get(STATUS_PATH + externalId));
+    }
+}
@@ -0,0 +1,127 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private final AtomicInteger decoded = new AtomicInteger();
+    private volatile Instant expiresAt;
+    private JwtProperties.Cache cacheProperties;
+
+    private final JwtDecoder delegate = token -> {
+        decoded.incrementAndGet();
+        if (token.startsWith("invalid")) {
+            throw new BadJwtException("invalid token");
+        }
+        return Jwt.withTokenValue(token)
+                .header("alg", "none")
+                .claim("sub", "technical-user")
+                .expiresAt(expiresAt)
+                .build();
+    };
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new JwtProperties.Cache();
+        expiresAt = Instant.now().plus(Duration.ofHours(1));
+    }
+
+    @Test
+    void tokenIsDecodedOnceWhileItIsValid() {
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        var jwt = decoder.decode("token");
+
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+        assertThat(decoded).hasValue(1);
+    }
+
+    @Test
+    void expiredTokenIsNotCached() {
+        expiresAt = Instant.now().minusSeconds(1);
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        assertThat(decoded).hasValue(2);
+    }
+
+    @Test
+    void tokenIsCachedAtMostUntilItExpires() throws InterruptedException {
+        expiresAt = Instant.now().plusSeconds(1);
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        decoder.decode("token");
+        decoder.decode("token");
+        assertThat(decoded).hasValue(1);
+
+        Thread.sleep(1200);
+        decoder.decode("token");
+        assertThat(decoded).hasValue(2);
+    }
+
+    @Test
+    void tokenIsCachedAtMostForMaxTtl() throws InterruptedException {
+        cacheProperties.setMaxTtl(Duration.ofMillis(100));
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        decoder.decode("token");
+        Thread.sleep(300);
+        decoder.decode("token");
+
+        assertThat(decoded).hasValue(2);
+    }
+
+    @Test
+    void differentTokensAreDecodedSeparately() {
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        assertThat(decoder.decode("token-1").getTokenValue()).isEqualTo("token-1");
+        assertThat(decoder.decode("token-2").getTokenValue()).isEqualTo("token-2");
+
+        assertThat(decoded).hasValue(2);
+    }
+
+    @Test
+    void failedDecodingIsNotCached() {
+        var decoder = new CachingJwtDecoder(delegate, cacheProperties, new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+
+        assertThat(decoded).hasValue(2);
+    }
+}
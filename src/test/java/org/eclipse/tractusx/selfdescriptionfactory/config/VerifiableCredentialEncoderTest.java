@@ -0,0 +1,226 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.config;
+
+import com.danubetech.verifiablecredentials.CredentialSubject;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.SDFactory;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.RegistrationNumberSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.ServiceOfferingSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.DocumentFetcher;
+import org.eclipse.tractusx.selfdescriptionfactory.service.converter.TermsAndConditionsHelper;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianClient;
+import org.eclipse.tractusx.selfdescriptionfactory.service.wallet.CustodianWallet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The encoder must write the same JSON as the ObjectMapper, which wrote the body before.
+ */
+class VerifiableCredentialEncoderTest {
+
+    private static final String SCHEMA_2210_URL = "https://github.com/eclipse-tractusx/sd-factory/blob/main/src/main/resources/verifiablecredentials/sd-document-v2210.jsonld";
+    private static final String GAIA_X_PARTICIPANT_SCHEMA = "https://registry.lab.gaia-x.eu/development/api/trusted-schemas-registry/v2/schemas";
+    private static final String GAIA_X_SERVICE_SCHEMA = "https://gaia-x.gitlab.io/gaia-x-community/gaia-x-self-descriptions/service/ontology.json";
+    private static final int DURATION_DAYS = 90;
+
+    private final ObjectMapper treeMapper = new ObjectMapper();
+
+    static Stream<Arguments> credentials() throws Exception {
+        var custodianWallet = custodianWallet();
+        var termsAndConditionsHelper = termsAndConditionsHelper();
+        var credentials = new LinkedHashMap<String, VerifiableCredential>();
+        credentials.put("catena-x-ctx LegalParticipant", credential(withContext(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3.LegalParticipantSDConverter(), SCHEMA_2210_URL), legalParticipant()));
+        var vrel3ServiceOffering = withContext(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.vrel3.ServiceOfferingSDConverter(termsAndConditionsHelper), SCHEMA_2210_URL);
+        credentials.put("catena-x-ctx ServiceOffering", credential(vrel3ServiceOffering, serviceOffering()));
+        // aggregationOf, termsAndConditions and policy are put into the Self-Description as null
+        credentials.put("catena-x-ctx ServiceOffering without optional fields", credential(vrel3ServiceOffering,
+                serviceOffering().aggregationOf(null).termsAndConditions(null).policies(null)));
+        credentials.put("gaia-x-ctx LegalParticipant", credential(withContext(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.gaiax.LegalParticipantSDConverter(custodianWallet), GAIA_X_PARTICIPANT_SCHEMA), legalParticipant()));
+        credentials.put("gaia-x-ctx ServiceOffering", credential(withContext(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.gaiax.ServiceOfferingSDConverter(custodianWallet, termsAndConditionsHelper), GAIA_X_SERVICE_SCHEMA), serviceOffering()));
+        credentials.put("fc-ctx LegalParticipant", credential(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.fcformat.LegalParticipantSDConverter(custodianWallet), legalParticipant()));
+        credentials.put("fc-ctx ServiceOffering", credential(
+                new org.eclipse.tractusx.selfdescriptionfactory.service.converter.fcformat.ServiceOfferingSDConverter(custodianWallet, termsAndConditionsHelper), serviceOffering()));
+        credentials.put("values which are not plain JSON", valuesWhichAreNotPlainJson());
+        var mappers = Map.of(
+                "non-null mapper of the application", new BeansFactory().nonNullObjectMapper(),
+                "default mapper", JsonMapper.builder().build(),
+                "non-empty mapper", JsonMapper.builder().build().setSerializationInclusion(JsonInclude.Include.NON_EMPTY));
+        return credentials.entrySet().stream().flatMap(credential -> mappers.entrySet().stream()
+                .map(mapper -> Arguments.of(credential.getKey() + " with " + mapper.getKey(), credential.getValue(), mapper.getValue())));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("credentials")
+    void encodesLikeTheObjectMapper(String name, VerifiableCredential verifiableCredential, ObjectMapper objectMapper) throws IOException {
+        var encoder = new VerifiableCredentialEncoder(objectMapper, (object, bodyType, template) -> {
+            throw new AssertionError("JSON-LD objects must not be passed to the delegate");
+        });
+        var template = new RequestTemplate();
+
+        encoder.encode(verifiableCredential, VerifiableCredential.class, template);
+
+        assertThat(treeMapper.readTree(template.body()))
+                .isEqualTo(treeMapper.readTree(objectMapper.writeValueAsBytes(verifiableCredential)));
+        assertThat(template.headers().get(HttpHeaders.CONTENT_TYPE)).containsExactly(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Test
+    void otherBodiesArePassedToTheDelegate() {
+        var delegated = new ArrayList<Object>();
+        var encoder = new VerifiableCredentialEncoder(new BeansFactory().nonNullObjectMapper(),
+                (object, bodyType, template) -> delegated.add(object));
+        var body = Map.of("grant_type", "client_credentials");
+
+        encoder.encode(body, Map.class, new RequestTemplate());
+
+        assertThat(delegated).containsExactly(body);
+    }
+
+    private static VerifiableCredential valuesWhichAreNotPlainJson() {
+        var nested = new LinkedHashMap<String, Object>();
+        nested.put("present", "value");
+        nested.put("absent", null);
+        nested.put("empty", List.of());
+        var claims = new LinkedHashMap<String, Object>();
+        claims.put("id", "did:web:example.org");
+        claims.put("uri", URI.create("https://example.org/terms"));
+        claims.put("date", Date.from(Instant.parse("2024-05-14T10:15:30Z")));
+        claims.put("double", 1.5d);
+        claims.put("decimal", new BigDecimal("12345678901234567890.5"));
+        claims.put("int", 1);
+        claims.put("long", Long.MAX_VALUE);
+        claims.put("boolean", true);
+        claims.put("null", null);
+        claims.put("nested", nested);
+        claims.put("list", Arrays.asList("a", null, Map.of("b", 2)));
+        claims.put("schema", new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.TAXID).value("o12345678"));
+        return VerifiableCredential.builder()
+                .id(URI.create("http://example.org/credential"))
+                .issuer(URI.create("did:web:example.org"))
+                .issuanceDate(Date.from(Instant.parse("2024-05-14T10:15:30Z")))
+                .credentialSubject(CredentialSubject.fromJsonObject(claims))
+                .build();
+    }
+
+    private static <T> VerifiableCredential credential(Converter<T, SDFactory.SelfDescription> converter, T request) {
+        return SDFactory.buildVerifiableCredential(converter.convert(request), DURATION_DAYS);
+    }
+
+    private static <T extends InitializingBean> T withContext(T converter, String contextUri) throws Exception {
+        ReflectionTestUtils.setField(converter, "contextUri", URI.create(contextUri));
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static LegalParticipantSchema legalParticipant() {
+        var registrationNumbers = new LinkedHashSet<RegistrationNumberSchema>();
+        registrationNumbers.add(new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.TAXID).value("o12345678"));
+        registrationNumbers.add(new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.VATID).value("DE123456789"));
+        return new LegalParticipantSchema()
+                .type("LegalParticipant")
+                .externalId("ID01234-123-4321")
+                .holder("BPNL000000000001")
+                .issuer("CAXSDUMMYCATENAZZ")
+                .bpn("BPNL000000000000")
+                .registrationNumber(registrationNumbers)
+                .headquarterAddressCountry("DE-BE")
+                .legalAddressCountry("DE-BE");
+    }
+
+    private static ServiceOfferingSchema serviceOffering() {
+        return new ServiceOfferingSchema()
+                .type("ServiceOffering")
+                .externalId("ID01234-123-4322")
+                .holder("BPNL000000000001")
+                .issuer("CAXSDUMMYCATENAZZ")
+                .providedBy(URI.create("https://participant.example.com"))
+                .aggregationOf("https://example.com/aggregate/1, https://example.com/aggregate/2")
+                .termsAndConditions("https://example.com/terms/1.pdf, https://example.com/terms/2.pdf")
+                .policies("policy-1, policy-2");
+    }
+
+    private static CustodianWallet custodianWallet() {
+        var custodianClient = mock(CustodianClient.class);
+        when(custodianClient.getWalletData(anyString())).thenAnswer(invocation -> Map.of(
+                "did", "did:sov:" + invocation.getArgument(0), "name", "Legal name of " + invocation.getArgument(0)));
+        var meterRegistry = new SimpleMeterRegistry();
+        var custodianWallet = new CustodianWallet(custodianClient, new CustodianWalletProperties(), meterRegistry, pipelineMetrics(meterRegistry));
+        custodianWallet.afterPropertiesSet();
+        return custodianWallet;
+    }
+
+    private static TermsAndConditionsHelper termsAndConditionsHelper() {
+        var properties = new TermsAndConditionsProperties();
+        var meterRegistry = new SimpleMeterRegistry();
+        return new TermsAndConditionsHelper(new DocumentFetcher(properties, meterRegistry), properties, meterRegistry, pipelineMetrics(meterRegistry)) {
+            @Override
+            public CompletableFuture<String> getHashAsync(String urlStr) {
+                return CompletableFuture.completedFuture("3b1c4a5d0b8f6e1a2c3d4e5f60718293a4b5c6d7e8f90112233445566778899a");
+            }
+        };
+    }
+
+    private static PipelineMetrics pipelineMetrics(SimpleMeterRegistry meterRegistry) {
+        var pipelineMetrics = new PipelineMetrics(meterRegistry, new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+        return pipelineMetrics;
+    }
+}
@@ -0,0 +1,269 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.stub.StubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives mixed LegalParticipant and ServiceOffering traffic at a target rate against the
+ * application, with Keycloak, the Custodian Wallet, the Clearing House and the Terms and
+ * Conditions hosts replaced by {@link StubServer}. Requests are sent on schedule regardless of
+ * the responses (open model), latencies are measured from the scheduled start, so a saturated
+ * service shows up as growing latency instead of a lower request rate. Latency histograms,
+ * throughput and the {@code sdfactory.pipeline} stage timings are logged and written to
+ * {@code target/load-report.json}. Runs with the {@code load} Maven profile only.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("gaia-x-ctx")
+class LoadTest {
+
+    private static final Duration[] LATENCY_BUCKETS = LongStream.of(10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000)
+            .mapToObj(Duration::ofMillis)
+            .toArray(Duration[]::new);
+
+    private static StubServer stubs;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry applicationMeterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry loadMeterRegistry = new SimpleMeterRegistry();
+
+    @TestConfiguration
+    static class LoadTestSecurity {
+        /**
+         * Accepts every bearer token as a token of a user with the role needed to create Self-Descriptions.
+         */
+        @Bean
+        @Primary
+        JwtDecoder loadTestJwtDecoder(@Value("${app.security.createRole}") String createRole) {
+            return token -> Jwt.withTokenValue(token)
+                    .header("alg", "none")
+                    .subject("load-test")
+                    .claim("realm_access", Map.of("roles", List.of(createRole)))
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(300))
+                    .build();
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) throws IOException {
+        stubs = new StubServer();
+        for (var client : List.of("clearingHouse", "custodianWallet")) {
+            registry.add("app.usersDetails." + client + ".serverUrl", () -> stubs.url(""));
+            registry.add("app.usersDetails." + client + ".realm", () -> "load");
+            registry.add("app.usersDetails." + client + ".clientId", () -> "sd-factory");
+            registry.add("app.usersDetails." + client + ".clientSecret", () -> "secret");
+        }
+        registry.add("app.usersDetails.clearingHouse.uri", () -> stubs.url("/clearing-house"));
+        registry.add("app.usersDetails.custodianWallet.uri", () -> stubs.url("/custodian"));
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        stubs.close();
+    }
+
+    @Test
+    void mixedTraffic() throws Exception {
+        var rps = Integer.getInteger("load.rps", 50);
+        var duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        var serviceOfferingShare = Double.parseDouble(System.getProperty("load.serviceOfferingShare", "0.5"));
+        var maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+        var total = rps * duration.toSeconds();
+        var interval = TimeUnit.SECONDS.toNanos(1) / rps;
+        var errors = new AtomicLong();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var client = HttpClient.newBuilder().executor(executor).build();
+            var responses = new ArrayList<CompletableFuture<Void>>();
+            var start = System.nanoTime();
+            for (long i = 0; i < total; i++) {
+                var scheduledAt = start + i * interval;
+                LockSupport.parkNanos(scheduledAt - System.nanoTime());
+                var type = ThreadLocalRandom.current().nextDouble() < serviceOfferingShare ? "ServiceOffering" : "LegalParticipant";
+                var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rel3/selfdescription"))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer load-test")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(selfDescription(type, i))))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .handle((response, err) -> {
+                            var status = err == null ? String.valueOf(response.statusCode()) : "error";
+                            latency(type).record(System.nanoTime() - scheduledAt, TimeUnit.NANOSECONDS);
+                            Counter.builder("load.responses").tag("type", type).tag("status", status).register(loadMeterRegistry).increment();
+                            if (err != null || response.statusCode() >= 300) {
+                                errors.incrementAndGet();
+                            }
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(duration.toSeconds() + 120, TimeUnit.SECONDS);
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+            report(rps, total, elapsed, errors.get());
+        }
+        var errorRate = (double) errors.get() / total;
+        assertTrue(errorRate <= maxErrorRate, "Error rate " + errorRate + " exceeds " + maxErrorRate);
+    }
+
+    private Map<String, Object> selfDescription(String type, long i) {
+        var bpns = Integer.getInteger("load.bpns", 100);
+        var termsAndConditionsUrls = Integer.getInteger("load.termsAndConditionsUrls", 20);
+        var random = ThreadLocalRandom.current();
+        var bpn = String.format("BPNL%012d", random.nextInt(bpns));
+        var request = new LinkedHashMap<String, Object>();
+        request.put("externalId", "load-" + UUID.randomUUID() + "-" + i);
+        request.put("type", type);
+        request.put("holder", bpn);
+        request.put("issuer", "CAXSDUMMYCATENAZZ");
+        if (type.equals("LegalParticipant")) {
+            request.put("registrationNumber", List.of(Map.of("type", "taxID", "value", "o" + bpn.substring(4))));
+            request.put("headquarterAddress.country", "DE");
+            request.put("legalAddress.country", "DE");
+            request.put("bpn", bpn);
+        } else {
+            request.put("providedBy", "https://participant.example.org/" + bpn);
+            request.put("aggregationOf", "https://aggr1.example.org, https://aggr2.example.org");
+            request.put("termsAndConditions", IntStream.range(0, 2)
+                    .mapToObj(n -> stubs.url("/tc/" + random.nextInt(termsAndConditionsUrls)))
+                    .collect(Collectors.joining(", ")));
+            request.put("policies", "policy1, policy2");
+        }
+        return request;
+    }
+
+    private Timer latency(String type) {
+        return Timer.builder("load.latency")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .serviceLevelObjectives(LATENCY_BUCKETS)
+                .register(loadMeterRegistry);
+    }
+
+    private void report(int rps, long total, Duration elapsed, long errors) throws IOException {
+        var report = new LinkedHashMap<String, Object>();
+        report.put("targetRps", rps);
+        report.put("requests", total);
+        report.put("errors", errors);
+        report.put("achievedRps", total * 1000.0 / elapsed.toMillis());
+        report.put("responses", loadMeterRegistry.find("load.responses").counters().stream()
+                .collect(Collectors.toMap(
+                        counter -> counter.getId().getTag("type") + " " + counter.getId().getTag("status"),
+                        counter -> (long) counter.count(),
+                        Long::sum,
+                        TreeMap::new)));
+        report.put("latency", loadMeterRegistry.find("load.latency").timers().stream()
+                .collect(Collectors.toMap(timer -> timer.getId().getTag("type"), LoadTest::latencyReport, (a, b) -> a, TreeMap::new)));
+        report.put("stages", stageReport());
+        report.put("stubRequests", stubs.getRequests());
+
+        var json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        log.info("Load test report:\n{}", json);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of("target", "load-report.json").toFile(), report);
+    }
+
+    private static Map<String, Object> latencyReport(Timer timer) {
+        var snapshot = timer.takeSnapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", snapshot.count());
+        result.put("meanMillis", snapshot.mean(TimeUnit.MILLISECONDS));
+        result.put("maxMillis", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            result.put("p" + new DecimalFormat("0.#").format(percentile.percentile() * 100) + "Millis", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        result.put("histogram", Arrays.stream(snapshot.histogramCounts())
+                .collect(Collectors.toMap(
+                        bucket -> "le " + (long) bucket.bucket(TimeUnit.MILLISECONDS) + "ms",
+                        bucket -> (long) bucket.count(),
+                        Long::sum,
+                        LinkedHashMap::new)));
+        return result;
+    }
+
+    /**
+     * Time spent in every stage of Self-Description creation as recorded by the application.
+     */
+    private Map<String, Map<String, Object>> stageReport() {
+        return applicationMeterRegistry.find(PipelineMetrics.TIMER_NAME).timers().stream()
+                .collect(Collectors.groupingBy(
+                        timer -> timer.getId().getTag("stage") + " " + timer.getId().getTag("outcome"),
+                        TreeMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), timers -> {
+                            var count = timers.stream().mapToLong(Timer::count).sum();
+                            var totalTime = timers.stream().mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS)).sum();
+                            Map<String, Object> result = new LinkedHashMap<>();
+                            result.put("count", count);
+                            result.put("meanMillis", count == 0 ? 0 : totalTime / count);
+                            result.put("maxMillis", timers.stream().mapToDouble(timer -> timer.max(TimeUnit.MILLISECONDS)).max().orElse(0));
+                            return result;
+                        })));
+    }
+}
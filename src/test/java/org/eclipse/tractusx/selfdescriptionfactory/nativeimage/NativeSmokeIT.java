@@ -0,0 +1,175 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.nativeimage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.tractusx.selfdescriptionfactory.stub.StubServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the native binary built by the {@code native} profile against {@link StubServer} and
+ * creates a LegalParticipant and a ServiceOffering through the secured API, so reflection, proxies
+ * and resources missing from the image show up as failures.
+ */
+@Slf4j
+class NativeSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void createsSelfDescriptions() throws Exception {
+        var binary = Path.of(System.getProperty("native.binary", "target/sd-factory"));
+        assertTrue(Files.isExecutable(binary), binary + " not found, build it with the native profile");
+        try (var stubs = new StubServer()) {
+            var key = new RSAKeyGenerator(2048).keyID("smoke").generate();
+            stubs.addJsonStub("jwks", "/jwks", new JWKSet(key.toPublicJWK()).toString());
+            var port = freePort();
+            var baseUrl = "http://localhost:" + port;
+            var output = Path.of("target", "native-smoke.log");
+            var process = new ProcessBuilder(List.of(
+                    binary.toString(),
+                    "--server.port=" + port,
+                    "--spring.profiles.active=" + System.getProperty("aot.profiles", "catena-x-ctx"),
+                    "--spring.security.oauth2.resourceserver.jwt.jwk-set-uri=" + stubs.url("/jwks"),
+                    "--app.usersDetails.clearingHouse.uri=" + stubs.url("/clearing-house"),
+                    "--app.usersDetails.clearingHouse.serverUrl=" + stubs.url(""),
+                    "--app.usersDetails.clearingHouse.realm=smoke",
+                    "--app.usersDetails.clearingHouse.clientId=sd-factory",
+                    "--app.usersDetails.clearingHouse.clientSecret=secret",
+                    "--app.usersDetails.custodianWallet.uri=" + stubs.url("/custodian"),
+                    "--app.usersDetails.custodianWallet.serverUrl=" + stubs.url(""),
+                    "--app.usersDetails.custodianWallet.realm=smoke",
+                    "--app.usersDetails.custodianWallet.clientId=sd-factory",
+                    "--app.usersDetails.custodianWallet.clientSecret=secret"))
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            try {
+                var startedIn = awaitHealthy(baseUrl, process);
+                log.info("Native image started in {} ms", startedIn.toMillis());
+
+                var token = token(key);
+                assertEquals(202, post(baseUrl, token, Map.of(
+                        "externalId", "smoke-lp",
+                        "type", "LegalParticipant",
+                        "holder", "BPNL000000000000",
+                        "issuer", "CAXSDUMMYCATENAZZ",
+                        "registrationNumber", List.of(Map.of("type", "taxID", "value", "o12345678")),
+                        "headquarterAddress.country", "DE",
+                        "legalAddress.country", "DE",
+                        "bpn", "BPNL000000000000")));
+                assertEquals(202, post(baseUrl, token, Map.of(
+                        "externalId", "smoke-so",
+                        "type", "ServiceOffering",
+                        "holder", "BPNL000000000000",
+                        "issuer", "CAXSDUMMYCATENAZZ",
+                        "providedBy", "https://participant.example.org",
+                        "aggregationOf", "https://aggr1.example.org",
+                        "termsAndConditions", stubs.url("/tc/1"),
+                        "policies", "policy1")));
+                assertEquals(2L, stubs.getRequests().get("clearingHouse"));
+                for (var externalId : List.of("smoke-lp", "smoke-so")) {
+                    var status = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/rel3/selfdescription/status/" + externalId))
+                            .header("Authorization", "Bearer " + token)
+                            .build(), HttpResponse.BodyHandlers.ofString());
+                    assertEquals(200, status.statusCode());
+                    assertEquals("SENT", objectMapper.readTree(status.body()).get("state").asText());
+                }
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+    }
+
+    private Duration awaitHealthy(String baseUrl, Process process) throws Exception {
+        var start = Instant.now();
+        var health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        while (Duration.between(start, Instant.now()).compareTo(STARTUP_TIMEOUT) < 0) {
+            assertTrue(process.isAlive(), () -> "Native image exited with " + process.exitValue() + ", see target/native-smoke.log");
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.between(start, Instant.now());
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Native image not healthy within " + STARTUP_TIMEOUT + ", see target/native-smoke.log");
+    }
+
+    private int post(String baseUrl, String token, Map<String, Object> selfDescription) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/rel3/selfdescription"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(selfDescription)))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String token(RSAKey key) throws Exception {
+        var jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject("native-smoke")
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                        .claim("realm_access", Map.of("roles", List.of("add_self_descriptions")))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private static int freePort() throws Exception {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.tractusx.selfdescriptionfactory.config.OutboxProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ClearingHouseOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private OutboxProperties outboxProperties;
+
+    @BeforeEach
+    void setUp() {
+        outboxProperties = new OutboxProperties();
+        outboxProperties.setEnabled(true);
+        outboxProperties.setDirectory(directory);
+        outboxProperties.setInitialBackoff(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void pendingCredentialsAreReplayedAfterRestart() throws IOException {
+        var outbox = start();
+        outbox.append(credential("http://example.org/1"), "externalId-1", "LegalParticipant");
+        outbox.append(credential("http://example.org/2"), "externalId-2", "ServiceOffering");
+
+        var restarted = start();
+
+        assertThat(restarted.size()).isEqualTo(2);
+        assertThat(restarted.getDueEntries())
+                .extracting(ClearingHouseOutbox.Entry::externalId, ClearingHouseOutbox.Entry::type)
+                .containsExactly(tuple("externalId-1", "LegalParticipant"), tuple("externalId-2", "ServiceOffering"));
+        assertThat(restarted.getDueEntries().get(0).verifiableCredential().getId())
+                .isEqualTo(URI.create("http://example.org/1"));
+    }
+
+    @Test
+    void credentialForSameExternalIdReplacesPendingOne() throws IOException {
+        var outbox = start();
+        outbox.append(credential("http://example.org/1"), "externalId-1", "LegalParticipant");
+        outbox.append(credential("http://example.org/2"), "externalId-1", "LegalParticipant");
+
+        var restarted = start();
+
+        assertThat(restarted.getDueEntries())
+                .singleElement()
+                .satisfies(entry -> assertThat(entry.verifiableCredential().getId()).isEqualTo(URI.create("http://example.org/2")));
+    }
+
+    @Test
+    void deliveredCredentialIsNotReplayed() throws IOException {
+        var outbox = start();
+        outbox.append(credential("http://example.org/1"), "externalId-1", "LegalParticipant");
+        outbox.delivered(outbox.getDueEntries().get(0));
+
+        assertThat(start().size()).isZero();
+    }
+
+    @Test
+    void rejectedCredentialIsMovedToFailedAndNotReplayed() throws IOException {
+        var outbox = start();
+        outbox.append(credential("http://example.org/1"), "externalId-1", "LegalParticipant");
+        var entry = outbox.getDueEntries().get(0);
+        outbox.failed(entry);
+
+        assertThat(start().size()).isZero();
+        assertThat(directory.resolve("failed").resolve(entry.key() + ".json")).exists();
+    }
+
+    @Test
+    void retriedCredentialKeepsItsBackoffAfterRestart() throws IOException {
+        var outbox = start();
+        outbox.append(credential("http://example.org/1"), "externalId-1", "LegalParticipant");
+        outbox.retryLater(outbox.getDueEntries().get(0));
+
+        var restarted = start();
+
+        assertThat(restarted.size()).isEqualTo(1);
+        assertThat(restarted.getDueEntries()).isEmpty();
+    }
+
+    @Test
+    void unreadableEntryIsMovedToFailed() throws IOException {
+        Files.createDirectories(directory.resolve("failed"));
+        Files.writeString(directory.resolve("broken.json"), "{not json");
+        Files.writeString(directory.resolve("interrupted.tmp"), "{\"key\":");
+
+        var outbox = start();
+
+        assertThat(outbox.size()).isZero();
+        assertThat(directory.resolve("failed").resolve("broken.json")).exists();
+        assertThat(directory.resolve("broken.json")).doesNotExist();
+        assertThat(directory.resolve("interrupted.tmp")).doesNotExist();
+    }
+
+    private ClearingHouseOutbox start() throws IOException {
+        var outbox = new ClearingHouseOutbox(outboxProperties, new ObjectMapper());
+        outbox.afterPropertiesSet();
+        return outbox;
+    }
+
+    private static VerifiableCredential credential(String id) {
+        return VerifiableCredential.builder()
+                .id(URI.create(id))
+                .issuer(URI.create("did:web:example.org"))
+                .issuanceDate(Date.from(Instant.parse("2024-05-14T10:15:30Z")))
+                .build();
+    }
+}
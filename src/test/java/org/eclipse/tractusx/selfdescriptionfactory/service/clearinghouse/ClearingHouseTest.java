@@ -0,0 +1,317 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.clearinghouse;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.AuditProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.OutboxProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ClearingHouseTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+    private final AtomicInteger sends = new AtomicInteger();
+    private final List<ClearingHouse> clearingHouses = new ArrayList<>();
+    private OutboxProperties outboxProperties;
+    private SubmissionTracker submissionTracker;
+    private PipelineMetrics pipelineMetrics;
+    private PayloadAuditLog payloadAuditLog;
+    private ClearingHouseOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        outboxProperties = new OutboxProperties();
+        outboxProperties.setEnabled(true);
+        outboxProperties.setDirectory(directory);
+        outboxProperties.setSendInterval(Duration.ofHours(1));
+        submissionTracker = new SubmissionTracker(new SubmissionProperties());
+        submissionTracker.afterPropertiesSet();
+        pipelineMetrics = new PipelineMetrics(meterRegistry, new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+        var auditProperties = new AuditProperties();
+        auditProperties.setSampleRate(0);
+        payloadAuditLog = new PayloadAuditLog(auditProperties, new ObjectMapper());
+        payloadAuditLog.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clearingHouses.forEach(ClearingHouse::destroy);
+        payloadAuditLog.destroy();
+    }
+
+    @Test
+    void drainedDeliveryIsRecordedForItsSelfDescription() throws IOException {
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "ServiceOffering");
+        assertThat(stages("externalId-1")).containsOnlyKeys(Stage.OUTBOX);
+
+        clearingHouse.drainOutbox();
+
+        var status = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(status.state()).isEqualTo(SubmissionTracker.State.SENT);
+        assertThat(status.stages()).containsOnlyKeys(Stage.OUTBOX, Stage.CLEARING_HOUSE);
+        assertThat(count(Stage.OUTBOX, "ServiceOffering")).isEqualTo(1);
+        assertThat(count(Stage.CLEARING_HOUSE, "ServiceOffering")).isEqualTo(1);
+        assertThat(count(Stage.CLEARING_HOUSE, "none")).isZero();
+    }
+
+    @Test
+    void directDeliveryIsRecordedInThePipeline() throws IOException {
+        outboxProperties.setEnabled(false);
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        var status = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(status.state()).isEqualTo(SubmissionTracker.State.SENT);
+        assertThat(status.stages()).containsOnlyKeys(Stage.CLEARING_HOUSE);
+        assertThat(count(Stage.CLEARING_HOUSE, "LegalParticipant")).isEqualTo(1);
+        assertThat(sends).hasValue(1);
+    }
+
+    @Test
+    void backoffIsDoubledUpToMaxBackoff() throws Exception {
+        outboxProperties.setInitialBackoff(Duration.ofMillis(200));
+        outboxProperties.setMaxBackoff(Duration.ofMillis(800));
+        failures.put("externalId-1", new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        for (var expectedBackoff : List.of(200L, 400L, 800L, 800L)) {
+            var drainedAt = Instant.now();
+            clearingHouse.drainOutbox();
+            var entry = readEntry("externalId-1");
+            assertThat(Duration.between(drainedAt, entry.nextAttemptAt()).toMillis()).isCloseTo(expectedBackoff, within(150L));
+            // not due before the backoff has passed
+            clearingHouse.drainOutbox();
+            assertThat(readEntry("externalId-1").attempts()).isEqualTo(entry.attempts());
+            Thread.sleep(Math.max(0, Duration.between(Instant.now(), entry.nextAttemptAt()).toMillis()) + 20);
+        }
+        assertThat(sends).hasValue(4);
+        assertThat(readEntry("externalId-1").attempts()).isEqualTo(4);
+
+        failures.clear();
+        clearingHouse.drainOutbox();
+        assertThat(outbox.size()).isZero();
+        assertThat(submissionTracker.get("externalId-1").orElseThrow().state()).isEqualTo(SubmissionTracker.State.SENT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {401, 403, 408, 429, 500, 502, 503})
+    void retryableErrorsKeepTheCredentialPending(int status) throws IOException {
+        failures.put("externalId-1", new ResponseStatusException(HttpStatus.valueOf(status), "status " + status));
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        clearingHouse.drainOutbox();
+
+        assertThat(outbox.size()).isEqualTo(1);
+        assertThat(readEntry("externalId-1").attempts()).isEqualTo(1);
+        assertThat(directory.resolve("failed")).isEmptyDirectory();
+        var tracked = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(tracked.state()).isEqualTo(SubmissionTracker.State.CONVERTED);
+        assertThat(tracked.message()).contains("status " + status);
+    }
+
+    @Test
+    void connectionFailuresKeepTheCredentialPending() throws IOException {
+        failures.put("externalId-1", new IllegalStateException("Connection refused"));
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        clearingHouse.drainOutbox();
+
+        assertThat(outbox.size()).isEqualTo(1);
+        assertThat(submissionTracker.get("externalId-1").orElseThrow().message()).isEqualTo("Connection refused");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 404, 409, 422})
+    void rejectedCredentialIsMovedToFailed(int status) throws IOException {
+        failures.put("externalId-1", new ResponseStatusException(HttpStatus.valueOf(status), "status " + status));
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        clearingHouse.drainOutbox();
+        clearingHouse.drainOutbox();
+
+        assertThat(sends).hasValue(1);
+        assertThat(outbox.size()).isZero();
+        assertThat(directory.resolve(entryFile("externalId-1"))).doesNotExist();
+        assertThat(directory.resolve("failed").resolve(entryFile("externalId-1"))).exists();
+        var tracked = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(tracked.state()).isEqualTo(SubmissionTracker.State.FAILED);
+        assertThat(tracked.message()).contains("status " + status);
+    }
+
+    @Test
+    void everyCredentialOfABatchIsAcknowledged() throws IOException {
+        outboxProperties.getDelivery().setBatchSize(3);
+        outboxProperties.getDelivery().setMaxInFlight(2);
+        failures.put("externalId-2", new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY));
+        var clearingHouse = clearingHouse();
+        for (var i = 1; i <= 6; i++) {
+            submit(clearingHouse, "externalId-" + i, "LegalParticipant");
+        }
+
+        clearingHouse.drainOutbox();
+
+        assertThat(sends).hasValue(6);
+        assertThat(outbox.size()).isZero();
+        assertThat(state("externalId-1")).isEqualTo(SubmissionTracker.State.SENT);
+        assertThat(state("externalId-2")).isEqualTo(SubmissionTracker.State.FAILED);
+        for (var i = 3; i <= 6; i++) {
+            assertThat(state("externalId-" + i)).isEqualTo(SubmissionTracker.State.SENT);
+        }
+    }
+
+    @Test
+    void runStopsAfterABatchWithARetry() throws IOException {
+        outboxProperties.getDelivery().setBatchSize(2);
+        outboxProperties.getDelivery().setMaxInFlight(2);
+        failures.put("externalId-2", new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        var clearingHouse = clearingHouse();
+        for (var i = 1; i <= 4; i++) {
+            submit(clearingHouse, "externalId-" + i, "LegalParticipant");
+        }
+
+        clearingHouse.drainOutbox();
+
+        assertThat(sends).hasValue(2);
+        assertThat(state("externalId-1")).isEqualTo(SubmissionTracker.State.SENT);
+        assertThat(state("externalId-2")).isEqualTo(SubmissionTracker.State.CONVERTED);
+        assertThat(state("externalId-3")).isEqualTo(SubmissionTracker.State.CONVERTED);
+        assertThat(state("externalId-4")).isEqualTo(SubmissionTracker.State.CONVERTED);
+        assertThat(outbox.size()).isEqualTo(3);
+    }
+
+    @Test
+    void incompleteBatchWaitsForLinger() throws IOException {
+        outboxProperties.getDelivery().setBatchSize(3);
+        outboxProperties.getDelivery().setLinger(Duration.ofHours(1));
+        var clearingHouse = clearingHouse();
+        submit(clearingHouse, "externalId-1", "LegalParticipant");
+
+        clearingHouse.drainOutbox();
+        assertThat(sends).hasValue(0);
+
+        submit(clearingHouse, "externalId-2", "LegalParticipant");
+        submit(clearingHouse, "externalId-3", "LegalParticipant");
+        clearingHouse.drainOutbox();
+        assertThat(sends).hasValue(3);
+        assertThat(outbox.size()).isZero();
+    }
+
+    private ClearingHouse clearingHouse() throws IOException {
+        outbox = new ClearingHouseOutbox(outboxProperties, new ObjectMapper());
+        outbox.afterPropertiesSet();
+        ClearingHouseClient client = (verifiableCredential, externalId) -> {
+            sends.incrementAndGet();
+            var failure = failures.get(externalId);
+            if (failure != null) {
+                throw failure;
+            }
+        };
+        var clearingHouse = new ClearingHouse(new TechnicalUsersDetails(), client, new StandardEnvironment(), outbox,
+                outboxProperties, payloadAuditLog, submissionTracker, pipelineMetrics);
+        clearingHouse.afterPropertiesSet();
+        clearingHouses.add(clearingHouse);
+        return clearingHouse;
+    }
+
+    /**
+     * Submits a credential the way a Self-Description is processed, within its pipeline.
+     */
+    private void submit(ClearingHouse clearingHouse, String externalId, String type) {
+        submissionTracker.queued(externalId);
+        pipelineMetrics.runPipeline(type, submissionTracker.stageListener(externalId), () -> {
+            submissionTracker.converted(externalId, "http://example.org/" + externalId);
+            clearingHouse.sendToClearingHouse(credential(externalId), externalId, type);
+        });
+    }
+
+    private SubmissionTracker.State state(String externalId) {
+        return submissionTracker.get(externalId).orElseThrow().state();
+    }
+
+    private ClearingHouseOutbox.Entry readEntry(String externalId) throws IOException {
+        return new ObjectMapper().registerModule(new JavaTimeModule())
+                .readValue(Files.readAllBytes(directory.resolve(entryFile(externalId))), ClearingHouseOutbox.Entry.class);
+    }
+
+    private static String entryFile(String externalId) {
+        return DigestUtils.sha256Hex(externalId) + ".json";
+    }
+
+    private Map<Stage, SubmissionTracker.StageTiming> stages(String externalId) {
+        return submissionTracker.get(externalId).orElseThrow().stages();
+    }
+
+    private long count(Stage stage, String type) {
+        var timer = meterRegistry.find(PipelineMetrics.TIMER_NAME).tag("stage", stage.getTag()).tag("type", type).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static VerifiableCredential credential(String externalId) {
+        return VerifiableCredential.builder()
+                .id(URI.create("http://example.org/" + externalId))
+                .issuer(URI.create("did:web:example.org"))
+                .issuanceDate(Date.from(Instant.parse("2024-05-14T10:15:30Z")))
+                .build();
+    }
+}
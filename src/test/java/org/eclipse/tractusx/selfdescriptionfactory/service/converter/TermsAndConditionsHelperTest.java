@@ -0,0 +1,163 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.converter;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TermsAndConditionsProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TermsAndConditionsHelperTest {
+
+    private final ExecutorService serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+    private TermsAndConditionsProperties termsAndConditionsProperties;
+    private TermsAndConditionsHelper termsAndConditionsHelper;
+    private String url;
+    private volatile String eTag = "\"a\"";
+    private volatile String body = "Terms and Conditions a";
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private final List<Integer> statuses = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/tc", exchange -> {
+            var condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(String.valueOf(condition));
+            if (Objects.equals(condition, eTag)) {
+                statuses.add(304);
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                var bytes = body.getBytes(StandardCharsets.UTF_8);
+                statuses.add(200);
+                exchange.getResponseHeaders().add("ETag", eTag);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/tc";
+
+        termsAndConditionsProperties = new TermsAndConditionsProperties();
+        termsAndConditionsProperties.getCache().setRevalidateAfter(Duration.ofMillis(100));
+        var meterRegistry = new SimpleMeterRegistry();
+        var documentFetcher = new DocumentFetcher(termsAndConditionsProperties, meterRegistry);
+        ReflectionTestUtils.setField(documentFetcher, "maxRedirect", 5);
+        documentFetcher.afterPropertiesSet();
+        var pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry(), new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+        termsAndConditionsHelper = new TermsAndConditionsHelper(documentFetcher, termsAndConditionsProperties, meterRegistry, pipelineMetrics);
+        termsAndConditionsHelper.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        termsAndConditionsHelper.destroy();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void unchangedDocumentIsRevalidatedWithoutDownload() throws InterruptedException {
+        var hash = DigestUtils.sha256Hex("Terms and Conditions a");
+
+        assertThat(termsAndConditionsHelper.getHash(url)).isEqualTo(hash);
+        assertThat(ifNoneMatch).containsExactly("null");
+
+        Thread.sleep(150);
+        assertThat(termsAndConditionsHelper.getHash(url)).isEqualTo(hash);
+        awaitUntil(() -> statuses.size() >= 2);
+
+        assertThat(ifNoneMatch.get(1)).isEqualTo("\"a\"");
+        assertThat(statuses.get(1)).isEqualTo(304);
+        assertThat(termsAndConditionsHelper.getHash(url)).isEqualTo(hash);
+    }
+
+    @Test
+    void changedDocumentIsDownloadedOnRevalidation() throws InterruptedException {
+        assertThat(termsAndConditionsHelper.getHash(url)).isEqualTo(DigestUtils.sha256Hex("Terms and Conditions a"));
+
+        eTag = "\"b\"";
+        body = "Terms and Conditions b";
+        Thread.sleep(150);
+        // the cached hash is served while the document is revalidated in background
+        assertThat(termsAndConditionsHelper.getHash(url)).isEqualTo(DigestUtils.sha256Hex("Terms and Conditions a"));
+        awaitUntil(() -> statuses.size() >= 2);
+
+        assertThat(ifNoneMatch.get(1)).isEqualTo("\"a\"");
+        assertThat(statuses.get(1)).isEqualTo(200);
+        var newHash = DigestUtils.sha256Hex("Terms and Conditions b");
+        awaitUntil(() -> termsAndConditionsHelper.getHash(url).equals(newHash));
+    }
+
+    @Test
+    void singleDocumentMustBeRetrievedWithinTheDeadline() {
+        termsAndConditionsProperties.getFetch().setDeadline(Duration.ofMillis(200));
+        var slowUrl = "http://localhost:" + server.getAddress().getPort() + "/slow";
+        var start = System.nanoTime();
+
+        assertThatThrownBy(() -> termsAndConditionsHelper.getTermsAndConditionsList(slowUrl, Function.identity()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("within " + Duration.ofMillis(200));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 seconds").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
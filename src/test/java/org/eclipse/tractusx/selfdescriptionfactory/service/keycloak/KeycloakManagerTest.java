@@ -0,0 +1,167 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.keycloak;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakManagerTest {
+
+    private static final String USER = "custodianWallet";
+
+    private final AtomicInteger keycloakCalls = new AtomicInteger();
+    private final AtomicInteger payloadReads = new AtomicInteger();
+    private final ObjectMapper countingMapper = new ObjectMapper() {
+        @Override
+        public <T> T readValue(byte[] src, TypeReference<T> valueTypeRef) throws IOException {
+            payloadReads.incrementAndGet();
+            return super.readValue(src, valueTypeRef);
+        }
+    };
+    private TechnicalUsersDetails technicalUsersDetails;
+    private PipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        technicalUsersDetails = new TechnicalUsersDetails();
+        technicalUsersDetails.setUsersDetails(Map.of(USER, new TechnicalUsersDetails.UserDetail(
+                "http://wallet.example.com", "http://keycloak.example.com/auth", "realm", null, null,
+                "client", "secret", null, null, null)));
+        pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry(), new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+    }
+
+    @Test
+    @SneakyThrows
+    void concurrentRequestsMakeOneKeycloakCall() {
+        var keycloakManager = keycloakManager(call -> {
+            sleep(200);
+            return tokenResponse(call, 3600, 3600);
+        });
+        var threads = 16;
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var tokens = new ArrayList<Future<String>>();
+            for (var i = 0; i < threads; i++) {
+                tokens.add(executor.submit(() -> {
+                    start.await();
+                    return keycloakManager.getToken(USER);
+                }));
+            }
+            start.countDown();
+            for (var token : tokens) {
+                assertThat(token.get()).isEqualTo(tokens.get(0).get());
+            }
+        }
+        assertThat(keycloakCalls).hasValue(1);
+    }
+
+    @Test
+    void expirationIsReadOncePerToken() {
+        var keycloakManager = keycloakManager(call -> tokenResponse(call, 3600, 3600));
+        for (var i = 0; i < 10; i++) {
+            keycloakManager.getToken(USER);
+        }
+        keycloakManager.renewExpiringTokens();
+        assertThat(keycloakCalls).hasValue(1);
+        assertThat(payloadReads).hasValue(1);
+    }
+
+    @Test
+    void tokenIsRenewedInBackgroundBeforeRefreshGap() {
+        // the first token expires in 100s: still usable on the request path, but renewed in background
+        var keycloakManager = keycloakManager(call -> tokenResponse(call, call == 1 ? 100 : 3600, 3600));
+        var first = keycloakManager.getToken(USER);
+        assertThat(keycloakManager.getToken(USER)).isEqualTo(first);
+        assertThat(keycloakCalls).hasValue(1);
+
+        keycloakManager.renewExpiringTokens();
+        assertThat(keycloakCalls).hasValue(2);
+        var renewed = keycloakManager.getToken(USER);
+        assertThat(renewed).isNotEqualTo(first);
+
+        keycloakManager.renewExpiringTokens();
+        assertThat(keycloakManager.getToken(USER)).isEqualTo(renewed);
+        assertThat(keycloakCalls).hasValue(2);
+    }
+
+    @Test
+    void tokenWithinRefreshGapIsRenewedOnRequest() {
+        // exp of the token takes precedence over a longer expires_in
+        var keycloakManager = keycloakManager(call -> tokenResponse(call, call == 1 ? 30 : 3600, 3600));
+        var first = keycloakManager.getToken(USER);
+        assertThat(keycloakManager.getToken(USER)).isNotEqualTo(first);
+        assertThat(keycloakCalls).hasValue(2);
+    }
+
+    @Test
+    void unknownUserHasNoToken() {
+        var keycloakManager = keycloakManager(call -> tokenResponse(call, 3600, 3600));
+        assertThat(keycloakManager.getToken("clearingHouse")).isNull();
+        assertThat(keycloakCalls).hasValue(0);
+    }
+
+    private KeycloakManager keycloakManager(IntFunction<Map<String, Object>> responses) {
+        KeycloakClient keycloakClient = (serverUrl, realm, params) -> responses.apply(keycloakCalls.incrementAndGet());
+        return new KeycloakManager(technicalUsersDetails, keycloakClient, countingMapper, pipelineMetrics);
+    }
+
+    private static Map<String, Object> tokenResponse(int call, long expSeconds, long expiresIn) {
+        var response = new HashMap<String, Object>();
+        response.put("access_token", jwt(call, Instant.now().plusSeconds(expSeconds)));
+        response.put("expires_in", expiresIn);
+        return response;
+    }
+
+    private static String jwt(int call, Instant exp) {
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        var header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        var payload = encoder.encodeToString(("{\"jti\":\"" + call + "\",\"exp\":" + exp.getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".signature";
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+}
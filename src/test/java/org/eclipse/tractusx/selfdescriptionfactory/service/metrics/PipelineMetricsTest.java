@@ -0,0 +1,98 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final List<Stage> recorded = new CopyOnWriteArrayList<>();
+    private PipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        pipelineMetrics = new PipelineMetrics(meterRegistry, new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdownNow();
+    }
+
+    @Test
+    void stagesRecordedOnAnotherThreadBelongToTheSubmittingPipeline() {
+        var executor = pipelineMetrics.propagating(worker);
+        pipelineMetrics.runPipeline("LegalParticipant", (stage, duration, success) -> recorded.add(stage),
+                () -> CompletableFuture.runAsync(() -> pipelineMetrics.record(Stage.TOKEN, () -> {}), executor).join());
+
+        assertThat(recorded).containsExactly(Stage.TOKEN);
+        assertThat(count(Stage.TOKEN, "LegalParticipant")).isEqualTo(1);
+    }
+
+    @Test
+    void workerThreadIsLeftWithoutPipeline() {
+        var executor = pipelineMetrics.propagating(worker);
+        pipelineMetrics.runPipeline("ServiceOffering", (stage, duration, success) -> recorded.add(stage),
+                () -> CompletableFuture.runAsync(() -> {}, executor).join());
+        // submitted outside of a pipeline, runs on the same worker thread
+        CompletableFuture.runAsync(() -> pipelineMetrics.record(Stage.TOKEN, () -> {}), executor).join();
+
+        assertThat(recorded).isEmpty();
+        assertThat(count(Stage.TOKEN, "none")).isEqualTo(1);
+        assertThat(count(Stage.TOKEN, "ServiceOffering")).isZero();
+    }
+
+    @Test
+    void stagesOfNestedPipelineAreNotReportedToOuterPipeline() {
+        List<Stage> inner = new CopyOnWriteArrayList<>();
+        pipelineMetrics.runPipeline("LegalParticipant", (stage, duration, success) -> recorded.add(stage), () -> {
+            pipelineMetrics.runPipeline("ServiceOffering", (stage, duration, success) -> inner.add(stage),
+                    () -> pipelineMetrics.record(Stage.WALLET, () -> {}));
+            pipelineMetrics.record(Stage.VC_BUILD, () -> {});
+        });
+
+        assertThat(inner).containsExactly(Stage.WALLET);
+        assertThat(recorded).containsExactly(Stage.VC_BUILD);
+        assertThat(count(Stage.WALLET, "ServiceOffering")).isEqualTo(1);
+        assertThat(count(Stage.VC_BUILD, "LegalParticipant")).isEqualTo(1);
+    }
+
+    private long count(Stage stage, String type) {
+        var timer = meterRegistry.find(PipelineMetrics.TIMER_NAME).tag("stage", stage.getTag()).tag("type", type).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
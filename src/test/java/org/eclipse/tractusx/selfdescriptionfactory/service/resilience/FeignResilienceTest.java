@@ -0,0 +1,232 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.resilience;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.config.ResilienceProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.TechnicalUsersDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeignResilienceTest {
+
+    private static final String NAME = "clearingHouse";
+    private static final Request.Options OPTIONS = new Request.Options();
+
+    private final ResilienceProperties resilienceProperties = new ResilienceProperties();
+    private final TechnicalUsersDetails technicalUsersDetails = new TechnicalUsersDetails();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    @BeforeEach
+    void setUp() {
+        var circuitBreaker = resilienceProperties.getCircuitBreaker();
+        circuitBreaker.setSlidingWindowSize(4);
+        circuitBreaker.setMinimumNumberOfCalls(4);
+        circuitBreaker.setFailureRateThreshold(50);
+        circuitBreaker.setWaitDurationInOpenState(Duration.ofMillis(200));
+        circuitBreaker.setPermittedNumberOfCallsInHalfOpenState(2);
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitAndRejectedCallsFailFast() throws IOException {
+        var feignResilience = feignResilience();
+        var client = feignResilience.capability(NAME).enrich(stubClient());
+        status.set(500);
+        for (var i = 0; i < 4; i++) {
+            assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(500);
+        }
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.execute(request(), OPTIONS))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getReason()).contains("circuit breaker is OPEN");
+                });
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void halfOpenCircuitClosesAfterSuccessfulProbes() throws Exception {
+        var feignResilience = feignResilience();
+        var client = feignResilience.capability(NAME).enrich(stubClient());
+        openCircuit(client);
+        Thread.sleep(400);
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        status.set(200);
+        assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(200);
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(200);
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedProbesOpenTheCircuitAgain() throws Exception {
+        var feignResilience = feignResilience();
+        var client = feignResilience.capability(NAME).enrich(stubClient());
+        openCircuit(client);
+        Thread.sleep(400);
+
+        assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(500);
+        assertThat(client.execute(request(), OPTIONS).status()).isEqualTo(500);
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        var callsBefore = calls.get();
+        assertThatThrownBy(() -> client.execute(request(), OPTIONS)).isInstanceOf(ResponseStatusException.class);
+        assertThat(calls).hasValue(callsBefore);
+    }
+
+    @Test
+    void connectionFailuresCountButClientErrorsDoNot() throws IOException {
+        var feignResilience = feignResilience();
+        var failing = feignResilience.capability(NAME).enrich((request, options) -> {
+            calls.incrementAndGet();
+            throw new IOException("Connection refused");
+        });
+        for (var i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> failing.execute(request(), OPTIONS)).isInstanceOf(IOException.class);
+        }
+        assertThat(circuitBreaker(feignResilience).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        var other = feignResilience.capability("custodianWallet").enrich(stubClient());
+        status.set(404);
+        for (var i = 0; i < 8; i++) {
+            assertThat(other.execute(request(), OPTIONS).status()).isEqualTo(404);
+        }
+        assertThat(feignResilience.getCircuitBreakerRegistry().circuitBreaker("custodianWallet").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void callsBeyondTheConcurrencyLimitAreRejected() throws Exception {
+        resilienceProperties.setMaxConcurrentCalls(1);
+        var feignResilience = feignResilience();
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var client = feignResilience.capability(NAME).enrich((request, options) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200);
+        });
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var blocked = executor.submit(() -> client.execute(request(), OPTIONS));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThatThrownBy(() -> client.execute(request(), OPTIONS))
+                    .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                        assertThat(e.getReason()).isEqualTo("Too many concurrent calls to " + NAME);
+                    });
+            release.countDown();
+            assertThat(blocked.get().status()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void timeoutsOfTheTechnicalUserAreApplied() throws IOException {
+        technicalUsersDetails.setUsersDetails(Map.of(NAME, new TechnicalUsersDetails.UserDetail(
+                "http://ch.example.com", null, null, null, null, null, null,
+                Duration.ofSeconds(2), Duration.ofSeconds(7), null)));
+        var applied = new AtomicReference<Request.Options>();
+        var client = feignResilience().capability(NAME).enrich((request, options) -> {
+            applied.set(options);
+            return response(request, 200);
+        });
+        client.execute(request(), OPTIONS);
+        assertThat(applied.get().connectTimeoutMillis()).isEqualTo(2000);
+        assertThat(applied.get().readTimeoutMillis()).isEqualTo(7000);
+    }
+
+    @Test
+    void healthReportsEveryCircuitBreaker() throws IOException {
+        var feignResilience = feignResilience();
+        var client = feignResilience.capability(NAME).enrich(stubClient());
+        openCircuit(client);
+        assertThatThrownBy(() -> client.execute(request(), OPTIONS)).isInstanceOf(ResponseStatusException.class);
+
+        var health = new FeignClientsHealthIndicator(feignResilience).health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsOnlyKeys(NAME);
+        @SuppressWarnings("unchecked")
+        var details = (Map<String, Object>) health.getDetails().get(NAME);
+        assertThat(details)
+                .containsEntry("state", CircuitBreaker.State.OPEN)
+                .containsEntry("failureRate", 100.0f)
+                .containsEntry("bufferedCalls", 4)
+                .containsEntry("notPermittedCalls", 1L)
+                .containsEntry("availableConcurrentCalls", resilienceProperties.getMaxConcurrentCalls());
+    }
+
+    private FeignResilience feignResilience() {
+        var feignResilience = new FeignResilience(resilienceProperties, technicalUsersDetails, new SimpleMeterRegistry());
+        feignResilience.afterPropertiesSet();
+        return feignResilience;
+    }
+
+    private void openCircuit(Client client) throws IOException {
+        status.set(500);
+        for (var i = 0; i < 4; i++) {
+            client.execute(request(), OPTIONS);
+        }
+    }
+
+    private Client stubClient() {
+        return (request, options) -> {
+            calls.incrementAndGet();
+            return response(request, status.get());
+        };
+    }
+
+    private static CircuitBreaker circuitBreaker(FeignResilience feignResilience) {
+        return feignResilience.getCircuitBreakerRegistry().circuitBreaker(NAME);
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "http://ch.example.com/api", Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status) {
+        return Response.builder().request(request).status(status).headers(Map.of()).build();
+    }
+}
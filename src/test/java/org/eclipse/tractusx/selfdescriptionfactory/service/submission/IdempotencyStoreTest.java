@@ -0,0 +1,129 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.submission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.config.IdempotencyProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.LegalParticipantSchema;
+import org.eclipse.tractusx.selfdescriptionfactory.model.vrel3.RegistrationNumberSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private IdempotencyProperties idempotencyProperties;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyProperties = new IdempotencyProperties();
+    }
+
+    @Test
+    void repeatedSubmissionWithSameContentIsNotClaimedAgain() throws Exception {
+        var store = start();
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isEmpty();
+    }
+
+    @Test
+    void submissionWithChangedContentIsClaimedAndReplacesTheRememberedOne() throws Exception {
+        var store = start();
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000002"))).isPresent();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000002"))).isEmpty();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+    }
+
+    @Test
+    void releasedSubmissionIsClaimedWhenRepeated() throws Exception {
+        var store = start();
+
+        var claim = store.claim(legalParticipant("ID-1", "BPNL000000000001"));
+        assertThat(claim).isPresent();
+        store.release(claim.get());
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+    }
+
+    @Test
+    void submissionRepeatedAfterTheWindowIsClaimedAgain() throws Exception {
+        idempotencyProperties.setWindow(Duration.ofMillis(100));
+        var store = start();
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+        Thread.sleep(200);
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+    }
+
+    @Test
+    void rememberedSubmissionsAreLoadedAfterRestart() throws Exception {
+        idempotencyProperties.setFile(directory.resolve("submissions.json"));
+        var store = start();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+        store.destroy();
+
+        var restarted = start();
+
+        assertThat(restarted.claim(legalParticipant("ID-1", "BPNL000000000001"))).isEmpty();
+        assertThat(restarted.claim(legalParticipant("ID-2", "BPNL000000000001"))).isPresent();
+    }
+
+    @Test
+    void everySubmissionIsClaimedWhenDisabled() throws Exception {
+        idempotencyProperties.setEnabled(false);
+        var store = start();
+
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+        assertThat(store.claim(legalParticipant("ID-1", "BPNL000000000001"))).isPresent();
+    }
+
+    private IdempotencyStore start() throws Exception {
+        var store = new IdempotencyStore(idempotencyProperties, new ObjectMapper(), new SimpleMeterRegistry());
+        store.afterPropertiesSet();
+        return store;
+    }
+
+    private static LegalParticipantSchema legalParticipant(String externalId, String bpn) {
+        return new LegalParticipantSchema()
+                .type("LegalParticipant")
+                .externalId(externalId)
+                .holder(bpn)
+                .issuer("BPNL000000000000")
+                .bpn(bpn)
+                .registrationNumber(Set.of(new RegistrationNumberSchema().type(RegistrationNumberSchema.TypeEnum.TAXID).value("o12345678")))
+                .headquarterAddressCountry("DE-BE")
+                .legalAddressCountry("DE-BE");
+    }
+}
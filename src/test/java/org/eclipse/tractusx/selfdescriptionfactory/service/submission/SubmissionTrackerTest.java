@@ -0,0 +1,150 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.submission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SubmissionProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics.Stage;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionTracker.State;
+import org.eclipse.tractusx.selfdescriptionfactory.service.submission.SubmissionTracker.StageTiming;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SubmissionTrackerTest {
+
+    private final SubmissionProperties submissionProperties = new SubmissionProperties();
+    private SubmissionTracker submissionTracker;
+
+    @BeforeEach
+    void setUp() {
+        submissionTracker = tracker();
+    }
+
+    @Test
+    void submissionIsConvertedAndSent() {
+        submissionTracker.queued("externalId-1");
+        var queued = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(queued.state()).isEqualTo(State.QUEUED);
+        assertThat(queued.stages()).isEmpty();
+
+        submissionTracker.converted("externalId-1", "http://example.org/credential");
+        var converted = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(converted.state()).isEqualTo(State.CONVERTED);
+        assertThat(converted.verifiableCredentialId()).isEqualTo("http://example.org/credential");
+
+        submissionTracker.deliveryFailed("externalId-1", "Clearing House unavailable");
+        var retried = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(retried.state()).isEqualTo(State.CONVERTED);
+        assertThat(retried.message()).isEqualTo("Clearing House unavailable");
+
+        submissionTracker.sent("externalId-1");
+        var sent = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(sent.state()).isEqualTo(State.SENT);
+        assertThat(sent.verifiableCredentialId()).isEqualTo("http://example.org/credential");
+        assertThat(sent.message()).isNull();
+        assertThat(sent.acceptedAt()).isEqualTo(queued.acceptedAt());
+        assertThat(sent.updatedAt()).isAfterOrEqualTo(converted.updatedAt());
+    }
+
+    @Test
+    void failedSubmissionKeepsTheReason() {
+        submissionTracker.queued("externalId-1");
+        submissionTracker.converted("externalId-1", "http://example.org/credential");
+
+        submissionTracker.failed("externalId-1", "Clearing House rejected the credential");
+
+        var failed = submissionTracker.get("externalId-1").orElseThrow();
+        assertThat(failed.state()).isEqualTo(State.FAILED);
+        assertThat(failed.message()).isEqualTo("Clearing House rejected the credential");
+        assertThat(failed.verifiableCredentialId()).isEqualTo("http://example.org/credential");
+    }
+
+    @Test
+    void stageTimingsAreSummedPerStage() {
+        submissionTracker.queued("externalId-1");
+        var listener = submissionTracker.stageListener("externalId-1");
+
+        listener.stageRecorded(Stage.CONVERSION, Duration.ofMillis(30), true);
+        listener.stageRecorded(Stage.TERMS_AND_CONDITIONS, Duration.ofMillis(10), true);
+        listener.stageRecorded(Stage.TERMS_AND_CONDITIONS, Duration.ofMillis(15), false);
+
+        assertThat(submissionTracker.get("externalId-1").orElseThrow().stages())
+                .containsOnly(
+                        entry(Stage.CONVERSION, new StageTiming(Duration.ofMillis(30), 1)),
+                        entry(Stage.TERMS_AND_CONDITIONS, new StageTiming(Duration.ofMillis(25), 2)));
+    }
+
+    @Test
+    void unknownSubmissionIsNotTracked() {
+        submissionTracker.converted("externalId-1", "http://example.org/credential");
+        submissionTracker.sent("externalId-1");
+        submissionTracker.stageListener("externalId-1").stageRecorded(Stage.CONVERSION, Duration.ofMillis(1), true);
+        submissionTracker.queued(null);
+
+        assertThat(submissionTracker.get("externalId-1")).isEmpty();
+    }
+
+    @Test
+    void statusIsForgottenAfterRetention() throws InterruptedException {
+        submissionProperties.getStatus().setRetention(Duration.ofMillis(200));
+        submissionTracker = tracker();
+        submissionTracker.queued("externalId-1");
+        assertThat(submissionTracker.get("externalId-1")).isPresent();
+
+        Thread.sleep(400);
+
+        assertThat(submissionTracker.get("externalId-1")).isEmpty();
+        // a late update does not bring it back
+        submissionTracker.sent("externalId-1");
+        assertThat(submissionTracker.get("externalId-1")).isEmpty();
+    }
+
+    @Test
+    void numberOfSubmissionsIsBounded() {
+        submissionProperties.getStatus().setMaxSize(10);
+        submissionTracker = tracker();
+
+        IntStream.range(0, 100).forEach(i -> submissionTracker.queued("externalId-" + i));
+        statuses().cleanUp();
+
+        assertThat(statuses().estimatedSize()).isLessThanOrEqualTo(10);
+        assertThat(IntStream.range(0, 100).filter(i -> submissionTracker.get("externalId-" + i).isPresent()).count())
+                .isLessThanOrEqualTo(10);
+    }
+
+    private SubmissionTracker tracker() {
+        var tracker = new SubmissionTracker(submissionProperties);
+        tracker.afterPropertiesSet();
+        return tracker;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, SubmissionTracker.Status> statuses() {
+        return (Cache<String, SubmissionTracker.Status>) ReflectionTestUtils.getField(submissionTracker, "statuses");
+    }
+}
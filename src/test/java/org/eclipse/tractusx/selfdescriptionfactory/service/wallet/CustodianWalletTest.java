@@ -0,0 +1,126 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.service.wallet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.tractusx.selfdescriptionfactory.config.CustodianWalletProperties;
+import org.eclipse.tractusx.selfdescriptionfactory.config.SecurityRoles;
+import org.eclipse.tractusx.selfdescriptionfactory.service.AuthChecker;
+import org.eclipse.tractusx.selfdescriptionfactory.service.metrics.PipelineMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustodianWalletTest {
+
+    private static final String CREATE_ROLE = "add_self_descriptions";
+    private static final String BPN_1 = "BPNL000000000001";
+    private static final String BPN_2 = "BPNL000000000002";
+
+    private final CustodianClient custodianClient = mock(CustodianClient.class);
+    private CustodianWallet custodianWallet;
+    private CustodianWalletEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        when(custodianClient.getWalletData(BPN_1)).thenReturn(Map.of("did", "did:web:one"));
+        when(custodianClient.getWalletData(BPN_2)).thenReturn(Map.of("did", "did:web:two"));
+        var meterRegistry = new SimpleMeterRegistry();
+        var pipelineMetrics = new PipelineMetrics(meterRegistry, new StandardEnvironment());
+        pipelineMetrics.afterPropertiesSet();
+        custodianWallet = new CustodianWallet(custodianClient, new CustodianWalletProperties(), meterRegistry, pipelineMetrics);
+        custodianWallet.afterPropertiesSet();
+        var securityRoles = new SecurityRoles();
+        securityRoles.setCreateRole(CREATE_ROLE);
+        var authChecker = new AuthChecker(securityRoles);
+        authChecker.afterPropertiesSet();
+        endpoint = new CustodianWalletEndpoint(custodianWallet, authChecker, new StandardEnvironment());
+        endpoint.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        custodianWallet.destroy();
+    }
+
+    @Test
+    void walletDataIsLoadedOnce() {
+        assertThat(custodianWallet.getWalletData(BPN_1)).containsEntry("did", "did:web:one");
+        assertThat(custodianWallet.getWalletData(BPN_1)).containsEntry("did", "did:web:one");
+        verify(custodianClient, times(1)).getWalletData(BPN_1);
+    }
+
+    @Test
+    void invalidatedWalletIsLoadedAgain() {
+        custodianWallet.getWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_2);
+        custodianWallet.invalidateWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_2);
+        verify(custodianClient, times(2)).getWalletData(BPN_1);
+        verify(custodianClient, times(1)).getWalletData(BPN_2);
+        custodianWallet.invalidateAllWalletData();
+        custodianWallet.getWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_2);
+        verify(custodianClient, times(3)).getWalletData(BPN_1);
+        verify(custodianClient, times(2)).getWalletData(BPN_2);
+    }
+
+    @Test
+    void endpointEvictsForCreateRole() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null, CREATE_ROLE));
+        custodianWallet.getWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_2);
+        endpoint.evict(BPN_1);
+        custodianWallet.getWalletData(BPN_1);
+        custodianWallet.getWalletData(BPN_2);
+        verify(custodianClient, times(2)).getWalletData(BPN_1);
+        verify(custodianClient, times(1)).getWalletData(BPN_2);
+        endpoint.evictAll();
+        custodianWallet.getWalletData(BPN_2);
+        verify(custodianClient, times(2)).getWalletData(BPN_2);
+    }
+
+    @Test
+    void endpointRequiresCreateRole() {
+        custodianWallet.getWalletData(BPN_1);
+        assertThatThrownBy(() -> endpoint.evict(BPN_1)).isInstanceOf(AuthenticationCredentialsNotFoundException.class);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null, "view_self_descriptions"));
+        assertThatThrownBy(endpoint::evictAll).isInstanceOf(AccessDeniedException.class);
+        custodianWallet.getWalletData(BPN_1);
+        verify(custodianClient, times(1)).getWalletData(BPN_1);
+    }
+}
@@ -0,0 +1,144 @@
+/********************************************************************************
+ * Copyright (c) 2022,2024 T-Systems International GmbH
+ * Copyright (c) 2022,2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ********************************************************************************/
+
+package org.eclipse.tractusx.selfdescriptionfactory.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-ins for Keycloak, the Custodian Wallet, the Clearing House and the hosts of Terms
+ * and Conditions documents. Every stub answers after its latency and fails with {@code 503} at its
+ * error rate, both are read from the system properties {@code load.stub.<stub>.latency} and
+ * {@code load.stub.<stub>.errorRate} falling back to {@code load.stub.latency} and {@code load.stub.errorRate}.
+ */
+public class StubServer implements AutoCloseable {
+
+    record Behaviour(Duration latency, double errorRate) {
+        static Behaviour of(String stub) {
+            return new Behaviour(
+                    Duration.parse(System.getProperty("load.stub." + stub + ".latency", System.getProperty("load.stub.latency", "PT0.05S"))),
+                    Double.parseDouble(System.getProperty("load.stub." + stub + ".errorRate", System.getProperty("load.stub.errorRate", "0")))
+            );
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<>();
+    private final HttpServer server;
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stub("keycloak", "/realms/", exchange -> respond(exchange, 200,
+                "{\"access_token\":\"stub-token\",\"token_type\":\"Bearer\",\"expires_in\":300}"));
+        stub("custodian", "/custodian/wallets/", exchange -> {
+            var bpn = exchange.getRequestURI().getPath().substring("/custodian/wallets/".length());
+            respond(exchange, 200, "{\"did\":\"did:web:example.org:" + bpn + "\",\"name\":\"Company " + bpn + "\"}");
+        });
+        stub("clearingHouse", "/clearing-house", exchange -> {
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        stub("termsAndConditions", "/tc/", exchange -> {
+            var body = ("Terms and Conditions " + exchange.getRequestURI().getPath()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Number of requests received by every stub.
+     */
+    public Map<String, Long> getRequests() {
+        var result = new TreeMap<String, Long>();
+        requests.forEach((stub, count) -> result.put(stub, count.get()));
+        return result;
+    }
+
+    /**
+     * Adds a stub answering every request with the given JSON document.
+     */
+    public void addJsonStub(String name, String path, String json) {
+        stub(name, path, exchange -> respond(exchange, 200, json));
+    }
+
+    private void stub(String name, String path, Handler handler) {
+        var behaviour = Behaviour.of(name);
+        var count = requests.computeIfAbsent(name, key -> new AtomicLong());
+        server.createContext(path, exchange -> {
+            count.incrementAndGet();
+            try (var in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            try {
+                Thread.sleep(behaviour.latency());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (ThreadLocalRandom.current().nextDouble() < behaviour.errorRate()) {
+                respond(exchange, 503, "{\"message\":\"Stub " + name + " is failing\"}");
+            } else {
+                handler.handle(exchange);
+            }
+        });
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}